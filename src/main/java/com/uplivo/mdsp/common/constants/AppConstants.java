@@ -7,4 +7,7 @@ package com.uplivo.mdsp.common.constants;
  * @Version 1.0.0
  */
 public class AppConstants {
+
+    /** 请求属性：请求进入处理器链时的System.nanoTime（用于统计请求体解析耗时） */
+    public static final String REQUEST_START_NANOS = "mdsp.requestStartNanos";
 }
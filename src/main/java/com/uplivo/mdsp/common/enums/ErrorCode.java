@@ -13,6 +13,8 @@ public enum ErrorCode {
 
     SYSTEM_ERROR(10000, "System internal error"),
     PARAM_ERROR(10001, "Invalid parameters"),
+    UNAUTHORIZED(10002, "Unauthorized"),
+    SERVICE_NOT_READY(10003, "Service not ready"),
 
     // 模型相关错误
     MODEL_LOAD_FAILED(20000, "Model loading failed"),
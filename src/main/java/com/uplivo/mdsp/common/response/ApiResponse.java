@@ -50,4 +50,8 @@ public class ApiResponse<T> {
     public static <T> ApiResponse<T> error(ErrorCode errorCode, String customMessage) {
         return new ApiResponse<>(false, errorCode.getCode(), customMessage, null);
     }
+
+    public static <T> ApiResponse<T> error(ErrorCode errorCode, String customMessage, T data) {
+        return new ApiResponse<>(false, errorCode.getCode(), customMessage, data);
+    }
 }
\ No newline at end of file
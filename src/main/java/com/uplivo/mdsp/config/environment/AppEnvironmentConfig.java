@@ -1,6 +1,15 @@
 package com.uplivo.mdsp.config.environment;
 
+import com.uplivo.mdsp.config.properties.PredictProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @Description 应用环境配置
@@ -9,5 +18,25 @@ import org.springframework.context.annotation.Configuration;
  * @Version 1.0.0
  */
 @Configuration
+@Slf4j
 public class AppEnvironmentConfig {
+
+    /**
+     * 模型分组打分线程池（有界队列，饱和时由请求线程直接执行）
+     *
+     * @param predictProperties 预测请求执行参数
+     * @return 并行打分线程池
+     */
+    @Bean(name = "predictExecutor", destroyMethod = "shutdown")
+    public ExecutorService predictExecutor(PredictProperties predictProperties) {
+        int threads = Math.max(1, predictProperties.getParallelThreads());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, predictProperties.getQueueCapacity())),
+                new CustomizableThreadFactory("predict-worker-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        log.info("Predict executor initialized - threads: {}, queueCapacity: {}",
+                threads, predictProperties.getQueueCapacity());
+        return executor;
+    }
 }
@@ -0,0 +1,79 @@
+package com.uplivo.mdsp.config.environment;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * @Description 容器CPU配额探测：取JVM可用处理器数与cgroup CPU配额（v2 cpu.max / v1 cfs_quota）中的较小值
+ * <p>旧版JDK对cgroup v2的配额不感知，availableProcessors会返回宿主机核数，ORT线程数需按实际配额计算</p>
+ *
+ * @Author charles
+ * @Date 2025/10/30 10:10
+ * @Version 1.0.0
+ */
+@Slf4j
+public final class ContainerCpuLimits {
+
+    private static final Path CGROUP_V2_CPU_MAX = Paths.get("/sys/fs/cgroup/cpu.max");
+    private static final Path CGROUP_V1_QUOTA = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_quota_us");
+    private static final Path CGROUP_V1_PERIOD = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_period_us");
+
+    private static volatile int availableCpus;
+
+    private ContainerCpuLimits() {
+    }
+
+    /**
+     * 容器内可用CPU数（配额向上取整，至少为1；结果缓存）
+     */
+    public static int availableCpus() {
+        int cpus = availableCpus;
+        if (cpus == 0) {
+            cpus = detect();
+            availableCpus = cpus;
+        }
+        return cpus;
+    }
+
+    private static int detect() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        double quota = readQuota();
+        int cpus = quota > 0 ? Math.max(1, Math.min(processors, (int) Math.ceil(quota))) : processors;
+        log.info("Available CPUs - JVM processors: {}, cgroup quota: {}, effective: {}",
+                processors, quota > 0 ? String.format("%.2f", quota) : "unlimited", cpus);
+        return cpus;
+    }
+
+    /**
+     * 读取cgroup CPU配额（核数），无配额或无法读取时返回-1
+     */
+    private static double readQuota() {
+        try {
+            if (Files.isReadable(CGROUP_V2_CPU_MAX)) {
+                // 格式："<quota> <period>" 或 "max <period>"
+                String[] parts = read(CGROUP_V2_CPU_MAX).split("\\s+");
+                if (parts.length == 2 && !"max".equals(parts[0])) {
+                    return Double.parseDouble(parts[0]) / Double.parseDouble(parts[1]);
+                }
+                return -1;
+            }
+            if (Files.isReadable(CGROUP_V1_QUOTA) && Files.isReadable(CGROUP_V1_PERIOD)) {
+                long quota = Long.parseLong(read(CGROUP_V1_QUOTA));
+                long period = Long.parseLong(read(CGROUP_V1_PERIOD));
+                return quota > 0 && period > 0 ? (double) quota / period : -1;
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Failed to read cgroup CPU quota, fall back to JVM processors", e);
+        }
+        return -1;
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII).trim();
+    }
+}
@@ -1,7 +1,9 @@
 package com.uplivo.mdsp.config.environment;
 
 import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtLoggingLevel;
 import com.uplivo.mdsp.common.exception.ModelException;
+import com.uplivo.mdsp.config.properties.OrtProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,19 +18,43 @@ import org.springframework.context.annotation.Configuration;
 @Slf4j
 public class OrtEnvironmentConfig {
 
+    private static final String ENVIRONMENT_NAME = "mdsp";
+
     /**
      * 创建ONNX全局环境（单例）
-     * <p>环境是ONNX Runtime的核心，管理线程池、内存分配等全局资源，所有模型共享一个环境
+     * <p>环境是ONNX Runtime的核心，管理线程池、内存分配等全局资源，所有模型共享一个环境；
+     * 启用全局线程池时所有会话共用一组算子线程，并发推理不会因每个会话各自开线程而过量订阅CPU
      *
+     * @param ortProperties 全局环境参数
      * @return 全局ONNX环境实例
      * @throws ModelException 环境创建失败时抛出业务异常
      */
     @Bean(destroyMethod = "close")
-    public OrtEnvironment ortEnvironment() {
+    public OrtEnvironment ortEnvironment(OrtProperties ortProperties) {
         try {
-            OrtEnvironment environment = OrtEnvironment.getEnvironment();
-            log.info("ONNX Runtime environment initialized successfully");
-            return environment;
+            if (!ortProperties.isGlobalThreadPools()) {
+                OrtEnvironment environment = OrtEnvironment.getEnvironment();
+                log.info("ONNX Runtime environment initialized successfully");
+                return environment;
+            }
+
+            int intraOpThreads = ortProperties.getGlobalIntraOpThreads() > 0
+                    ? ortProperties.getGlobalIntraOpThreads()
+                    : ContainerCpuLimits.availableCpus();
+            int interOpThreads = ortProperties.getGlobalInterOpThreads() > 0 ? ortProperties.getGlobalInterOpThreads() : 1;
+            try (OrtEnvironment.ThreadingOptions threadingOptions = new OrtEnvironment.ThreadingOptions()) {
+                threadingOptions.setGlobalIntraOpNumThreads(intraOpThreads);
+                threadingOptions.setGlobalInterOpNumThreads(interOpThreads);
+                if (ortProperties.getGlobalAllowSpinning() != null) {
+                    threadingOptions.setGlobalSpinControl(ortProperties.getGlobalAllowSpinning());
+                }
+                OrtEnvironment environment = OrtEnvironment.getEnvironment(
+                        OrtLoggingLevel.ORT_LOGGING_LEVEL_WARNING, ENVIRONMENT_NAME, threadingOptions);
+                log.info("ONNX Runtime environment initialized with global thread pools - intraOp: {}, interOp: {}, spinning: {}",
+                        intraOpThreads, interOpThreads,
+                        ortProperties.getGlobalAllowSpinning() != null ? ortProperties.getGlobalAllowSpinning() : "default");
+                return environment;
+            }
         } catch (Exception e) {
             log.error("Failed to create ONNX Runtime environment", e);
             throw new ModelException("ONNX Runtime environment initialization failed", e);
@@ -0,0 +1,34 @@
+package com.uplivo.mdsp.config.environment;
+
+import com.uplivo.mdsp.common.constants.AppConstants;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @Description Web MVC配置
+ * @Author charles
+ * @Date 2025/10/25 11:15
+ * @Version 1.0.0
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * 预测接口在参数解析前打点：处理器方法入口与该时间之差即请求体解析耗时
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                request.setAttribute(AppConstants.REQUEST_START_NANOS, System.nanoTime());
+                return true;
+            }
+        }).addPathPatterns("/api/model/**");
+    }
+}
@@ -1,6 +1,7 @@
 package com.uplivo.mdsp.config.model;
 
 import com.uplivo.mdsp.common.exception.ModelException;
+import com.uplivo.mdsp.config.properties.ModelProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -20,9 +21,12 @@ public class ModelConfigManager {
 
     private final Map<String, ModelContext> modelContextMap;
 
+    private final ModelProperties modelProperties;
+
     @Autowired
-    public ModelConfigManager(Map<String, ModelContext> modelContextMap) {
+    public ModelConfigManager(Map<String, ModelContext> modelContextMap, ModelProperties modelProperties) {
         this.modelContextMap = new ConcurrentHashMap<>();
+        this.modelProperties = modelProperties;
 
         log.info("Initializing ModelConfigManager with {} model contexts",
                 modelContextMap != null ? modelContextMap.size() : 0);
@@ -58,4 +62,47 @@ public class ModelConfigManager {
         return context;
     }
 
-}
\ No newline at end of file
+    /**
+     * 获取模型上下文并持有引用（推理期间会话不会被关闭，使用完毕须调用ModelContext.release）
+     * <p>读取到的上下文恰好被热加载替换下线时重新读取，热加载先写入新上下文再下线旧上下文，因此不会阻塞或失败</p>
+     */
+    public ModelContext acquireModelContext(String modelId) {
+        while (true) {
+            ModelContext context = getModelContext(modelId);
+            if (context.retain()) {
+                return context;
+            }
+        }
+    }
+
+    /**
+     * 原子替换模型上下文（热加载），旧上下文在在途推理结束后关闭会话
+     *
+     * @param modelId    模型标识
+     * @param newContext 已完成预热的新上下文
+     * @return 被替换的旧上下文（不存在时返回null）
+     */
+    public ModelContext replaceModelContext(String modelId, ModelContext newContext) {
+        if (newContext == null || !newContext.isValid()) {
+            throw new ModelException("Model context is invalid: " + modelId);
+        }
+        ModelContext previous = modelContextMap.put(modelId, newContext);
+        if (previous != null) {
+            previous.retire();
+            log.info("Model context replaced - ID: {}, in-flight on previous session: {}",
+                    modelId, previous.getInFlightCount());
+        } else {
+            log.info("Registered model: {} - {}", modelId, newContext.toSimpleString());
+        }
+        return previous;
+    }
+
+    /**
+     * 获取模型的配置项（未配置时返回null）
+     */
+    public ModelProperties.ModelConfig getModelConfig(String modelId) {
+        Map<String, ModelProperties.ModelConfig> configs = modelProperties.getConfigs();
+        return configs != null ? configs.get(modelId) : null;
+    }
+
+}
@@ -1,6 +1,12 @@
 package com.uplivo.mdsp.config.model;
 
+import ai.onnxruntime.NodeInfo;
+import ai.onnxruntime.OnnxJavaType;
+import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.TensorInfo;
+import com.uplivo.mdsp.common.exception.ModelException;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -8,6 +14,9 @@ import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @Description 模型上下文封装类：关联模型的会话、输入节点名、输出节点名、元数据
@@ -19,7 +28,7 @@ import java.util.Map;
 @Getter
 @Builder
 @AllArgsConstructor
-@ToString(exclude = "session")
+@ToString(exclude = {"session", "references", "retired", "outputTensorInfo"})
 public class ModelContext {
 
     /**
@@ -88,6 +97,24 @@ public class ModelContext {
      */
     private final long loadTimestamp;
 
+    /**
+     * 引用计数：初始为1（由ModelConfigManager持有），推理期间每次调用额外持有一次，归零时关闭会话
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    /**
+     * 是否已下线（热加载替换后由ModelConfigManager释放持有的引用）
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean retired = new AtomicBoolean(false);
+
+    /**
+     * 输出节点元数据（首次推理时从会话解析并校验，会话生命周期内不变）
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<TensorInfo> outputTensorInfo = new AtomicReference<>();
+
     // 简化构造函数，保持向后兼容
     public ModelContext(OrtSession session, String inputNodeName, String outputNodeName) {
         this("unknown", "unknown", "unknown", "unknown", session, inputNodeName, outputNodeName,
@@ -104,6 +131,84 @@ public class ModelContext {
                 enabled;
     }
 
+    /**
+     * 获取输出节点元数据（按会话缓存，仅首次调用访问会话元数据）
+     *
+     * @return 输出张量元数据（元素类型为float，维数为1或2）
+     * @throws OrtException   会话元数据读取失败时抛出
+     * @throws ModelException 输出节点不存在或格式不支持时抛出
+     */
+    public TensorInfo getOutputTensorInfo() throws OrtException {
+        TensorInfo info = outputTensorInfo.get();
+        if (info != null) {
+            return info;
+        }
+        NodeInfo nodeInfo = session.getOutputInfo().get(outputNodeName);
+        if (nodeInfo == null || !(nodeInfo.getInfo() instanceof TensorInfo)) {
+            throw new ModelException(String.format("Output tensor not found in model %s: %s", modelId, outputNodeName));
+        }
+        info = (TensorInfo) nodeInfo.getInfo();
+        int rank = info.getShape().length;
+        if (info.type != OnnxJavaType.FLOAT || rank < 1 || rank > 2) {
+            throw new ModelException(String.format(
+                    "Unsupported output for model %s - Expected float tensor [batchSize] or [batchSize, k], but got %s",
+                    modelId, info));
+        }
+        outputTensorInfo.compareAndSet(null, info);
+        return info;
+    }
+
+    /**
+     * 推理前持有上下文，防止推理期间会话被关闭
+     *
+     * @return 上下文已下线且引用归零时返回false，调用方应重新获取最新上下文
+     */
+    public boolean retain() {
+        while (true) {
+            int current = references.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 推理结束后释放上下文，最后一个引用释放时关闭会话
+     */
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            closeSession();
+        }
+    }
+
+    /**
+     * 下线上下文：释放管理器持有的引用，在途推理全部结束后关闭会话（重复调用无副作用）
+     */
+    public void retire() {
+        if (retired.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    /**
+     * 当前在途推理数（不含管理器持有的引用）
+     */
+    public int getInFlightCount() {
+        return Math.max(0, references.get() - (retired.get() ? 0 : 1));
+    }
+
+    private void closeSession() {
+        try {
+            session.close();
+            log.info("Model session closed - ID: {}, loaded at: {}", modelId, loadTimestamp);
+        } catch (OrtException e) {
+            log.error("Failed to close model session - ID: {}", modelId, e);
+        }
+    }
+
     /**
      * 获取简化的字符串表示（用于日志）
      */
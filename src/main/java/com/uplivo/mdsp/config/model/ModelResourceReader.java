@@ -0,0 +1,77 @@
+package com.uplivo.mdsp.config.model;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @Description 模型文件读取：返回可直接交给ONNX Runtime创建会话的直接内存缓冲区，模型字节不驻留Java堆
+ * <p>文件系统中的模型以只读方式内存映射，读取直接走操作系统页缓存；其余资源（如可执行jar内的classpath资源）
+ * 按流读取到直接内存缓冲区。会话创建时ONNX Runtime会将模型复制到自身内存，调用方创建会话后即可丢弃缓冲区引用，
+ * 映射与直接内存随缓冲区被回收而释放。因此页缓存中的文件页只在加载期间被同一主机上的多个JVM共享，
+ * 会话创建后每个JVM各自持有一份模型副本，常驻内存并不因映射而减少</p>
+ *
+ * @Author charles
+ * @Date 2025/10/31 14:20
+ * @Version 1.0.0
+ */
+@Slf4j
+final class ModelResourceReader {
+
+    private static final int READ_CHUNK_BYTES = 1024 * 1024;
+
+    private ModelResourceReader() {
+    }
+
+    /**
+     * 读取模型资源
+     *
+     * @param resource 模型资源（file:、classpath:，含可执行jar内的资源）
+     * @return position=0、limit=模型大小的直接内存缓冲区
+     * @throws IOException 资源读取失败时抛出
+     */
+    static ByteBuffer read(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                log.info("Model file memory-mapped - {} ({} bytes)", resource.getDescription(), mapped.capacity());
+                return mapped;
+            }
+        }
+
+        long contentLength = resource.contentLength();
+        try (InputStream in = resource.getInputStream();
+             ReadableByteChannel channel = Channels.newChannel(in)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(contentLength > 0 ? Math.toIntExact(contentLength) : READ_CHUNK_BYTES);
+            ByteBuffer probe = ByteBuffer.allocate(1);
+            while (true) {
+                if (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                    continue;
+                }
+                // 缓冲区已满：探测是否已到流末尾，长度未知或与声明不符时扩容
+                probe.clear();
+                if (channel.read(probe) < 0) {
+                    break;
+                }
+                ByteBuffer grown = ByteBuffer.allocateDirect(Math.multiplyExact(buffer.capacity(), 2));
+                buffer.flip();
+                probe.flip();
+                grown.put(buffer).put(probe);
+                buffer = grown;
+            }
+            buffer.flip();
+            log.info("Model resource streamed to direct memory - {} ({} bytes)", resource.getDescription(), buffer.limit());
+            return buffer;
+        }
+    }
+}
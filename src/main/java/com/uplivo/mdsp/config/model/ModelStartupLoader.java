@@ -0,0 +1,147 @@
+package com.uplivo.mdsp.config.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uplivo.mdsp.config.environment.ContainerCpuLimits;
+import com.uplivo.mdsp.config.properties.ModelProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CustomizableThreadFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 启动加载器：在有界线程池上并行加载各模型的推理会话与预处理参数
+ * <p>创建时即为所有启用模型提交预处理参数JSON的读取与解析，模型会话由OnnxModelConfig提交；
+ * 各预处理配置类取用已解析的JSON树再绑定为各自的参数类型，启动耗时接近最慢的单个模型而非全部之和。
+ * 每项任务记录耗时，失败只影响对应的模型，处理方式与串行加载时一致</p>
+ *
+ * @Author charles
+ * @Date 2025/10/31 16:40
+ * @Version 1.0.0
+ */
+@Slf4j
+@Component
+public class ModelStartupLoader {
+
+    /** 空闲线程存活时间（启动完成后线程自行退出） */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ModelProperties modelProperties;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ThreadPoolExecutor executor;
+
+    /** 预处理参数JSON树（模型标识 → 解析任务） */
+    private final Map<String, CompletableFuture<JsonNode>> preprocessorTrees = new ConcurrentHashMap<>();
+
+    public ModelStartupLoader(ModelProperties modelProperties, ResourceLoader resourceLoader) {
+        this.modelProperties = modelProperties;
+        this.resourceLoader = resourceLoader;
+        int threads = resolveThreads();
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("model-load-"));
+        this.executor.allowCoreThreadTimeOut(true);
+        log.info("Model startup loader initialized - threads: {}", threads);
+    }
+
+    /**
+     * 为所有启用且配置了预处理参数的模型提交解析任务
+     */
+    @PostConstruct
+    public void prefetchPreprocessorParams() {
+        if (modelProperties.getConfigs() == null) {
+            return;
+        }
+        modelProperties.getConfigs().forEach((modelId, config) -> {
+            if (config.isEnabled() && config.getPreprocessorPath() != null) {
+                preprocessorTree(modelId);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 在加载线程池上执行任务并记录耗时
+     *
+     * @param modelId 模型标识（用于日志）
+     * @param stage   加载内容（用于日志，如 session、preprocessor）
+     * @param task    加载任务
+     * @return 任务结果（任务异常时以CompletionException完成）
+     */
+    public <T> CompletableFuture<T> submit(String modelId, String stage, Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                T result = task.call();
+                log.info("Model [{}] {} loaded in {} ms", modelId, stage, System.currentTimeMillis() - start);
+                return result;
+            } catch (Exception e) {
+                log.warn("Model [{}] {} failed after {} ms", modelId, stage, System.currentTimeMillis() - start);
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 获取预处理参数（等待预取的JSON解析完成后绑定为指定类型）
+     *
+     * @param modelId 模型标识
+     * @param type    参数类型
+     * @return 预处理参数
+     * @throws IOException 参数文件读取、解析或绑定失败时抛出
+     */
+    public <T> T preprocessorParam(String modelId, Class<T> type) throws IOException {
+        try {
+            return objectMapper.treeToValue(preprocessorTree(modelId).join(), type);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to load preprocessor params for model " + modelId, e.getCause());
+        }
+    }
+
+    private CompletableFuture<JsonNode> preprocessorTree(String modelId) {
+        return preprocessorTrees.computeIfAbsent(modelId, id -> submit(id, "preprocessor", () -> {
+            ModelProperties.ModelConfig config = modelProperties.getConfigs().get(id);
+            if (config == null || config.getPreprocessorPath() == null) {
+                throw new IOException("Preprocessor path not configured for model " + id);
+            }
+            Resource resource = resourceLoader.getResource(config.getPreprocessorPath());
+            try (InputStream is = resource.getInputStream()) {
+                return objectMapper.readTree(is);
+            }
+        }));
+    }
+
+    /**
+     * 线程数：未配置时取 min(启用模型数 × 2, 容器可用CPU数)，每个模型含会话与预处理参数两项任务
+     */
+    private int resolveThreads() {
+        if (modelProperties.getLoadThreads() > 0) {
+            return modelProperties.getLoadThreads();
+        }
+        long enabledModels = modelProperties.getConfigs() == null ? 1 : modelProperties.getConfigs().values().stream()
+                .filter(ModelProperties.ModelConfig::isEnabled)
+                .count();
+        return (int) Math.max(1, Math.min(enabledModels * 2, ContainerCpuLimits.availableCpus()));
+    }
+}
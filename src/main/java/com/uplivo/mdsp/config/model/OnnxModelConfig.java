@@ -4,7 +4,9 @@ import ai.onnxruntime.OrtEnvironment;
 import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 import com.uplivo.mdsp.common.exception.ModelException;
+import com.uplivo.mdsp.config.environment.ContainerCpuLimits;
 import com.uplivo.mdsp.config.properties.ModelProperties;
+import com.uplivo.mdsp.config.properties.OrtProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,10 +14,13 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 
 import javax.annotation.PostConstruct;
-import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Configuration
@@ -25,15 +30,28 @@ public class OnnxModelConfig {
     private final OrtEnvironment ortEnvironment;
     private final ResourceLoader resourceLoader;
     private final ModelProperties modelProperties;
+    private final OrtProperties ortProperties;
+    private final OptimizedModelCache optimizedModelCache;
+    private final ModelStartupLoader modelStartupLoader;
+
+    /** ORT线程空闲自旋开关（会话级配置项） */
+    private static final String INTRA_OP_SPINNING_KEY = "session.intra_op.allow_spinning";
+    private static final String INTER_OP_SPINNING_KEY = "session.inter_op.allow_spinning";
 
     private final Map<String, ModelContext> modelContexts = new ConcurrentHashMap<>();
 
     public OnnxModelConfig(OrtEnvironment ortEnvironment,
                            ResourceLoader resourceLoader,
-                           ModelProperties modelProperties) {
+                           ModelProperties modelProperties,
+                           OrtProperties ortProperties,
+                           OptimizedModelCache optimizedModelCache,
+                           ModelStartupLoader modelStartupLoader) {
         this.ortEnvironment = ortEnvironment;
         this.resourceLoader = resourceLoader;
         this.modelProperties = modelProperties;
+        this.ortProperties = ortProperties;
+        this.optimizedModelCache = optimizedModelCache;
+        this.modelStartupLoader = modelStartupLoader;
     }
 
     @PostConstruct
@@ -44,20 +62,29 @@ public class OnnxModelConfig {
             return;
         }
 
+        // 各模型会话在加载线程池上并行创建，单个模型失败不影响其他模型
+        long start = System.currentTimeMillis();
+        Map<String, CompletableFuture<ModelContext>> pending = new LinkedHashMap<>();
         modelProperties.getConfigs().forEach((modelId, config) -> {
             if (!config.isEnabled()) {
                 log.info("Model {} is disabled, skipping", modelId);
                 return;
             }
+            pending.put(modelId, modelStartupLoader.submit(modelId, "session",
+                    () -> createModelContext(modelId, config)));
+        });
+
+        pending.forEach((modelId, future) -> {
             try {
-                loadModel(modelId, config);
+                modelContexts.put(modelId, future.join());
                 log.info("Successfully loaded model: {}", modelId);
-            } catch (Exception e) {
-                log.error("Failed to load model: {}", modelId, e);
+            } catch (CompletionException e) {
+                log.error("Failed to load model: {}", modelId, e.getCause());
             }
         });
 
-        log.info("Model loading completed. Loaded: {}", modelContexts.size());
+        log.info("Model loading completed. Loaded: {}, elapsed: {} ms",
+                modelContexts.size(), System.currentTimeMillis() - start);
     }
 
     @Bean
@@ -65,20 +92,33 @@ public class OnnxModelConfig {
         return new HashMap<>(modelContexts);
     }
 
-    private void loadModel(String modelId, ModelProperties.ModelConfig config)
+    /**
+     * 按模型配置创建会话并构建模型上下文（启动加载与热加载共用）
+     *
+     * @param modelId 模型标识
+     * @param config  模型配置
+     * @return 新的模型上下文
+     */
+    public ModelContext createModelContext(String modelId, ModelProperties.ModelConfig config)
             throws OrtException, IOException {
 
-        // 加载模型文件
+        // 加载模型（文件内存映射，或jar内资源读入直接内存，均不占用Java堆）
         Resource modelResource = resourceLoader.getResource(config.getPath());
         if (!modelResource.exists()) {
             throw new ModelException("Model file not found: " + config.getPath());
         }
-        File modelFile = modelResource.getFile();
-        String modelPath = modelFile.getAbsolutePath();
-
-        // 创建会话配置
-        OrtSession.SessionOptions sessionOptions = createSessionOptions();
-        OrtSession session = ortEnvironment.createSession(modelPath, sessionOptions);
+        ByteBuffer model = ModelResourceReader.read(modelResource);
+
+        // 创建会话配置（启用图优化缓存时优先加载已优化的模型）
+        ModelProperties.Session settings = config.getSession() != null ? config.getSession() : new ModelProperties.Session();
+        // 会话持有模型与参数的副本，创建完成（含图优化缓存回退重建）后即释放会话参数的本地内存，不再引用缓冲区
+        OrtSession session;
+        OrtSession.SessionOptions sessionOptions = createSessionOptions(modelId, settings);
+        try {
+            session = optimizedModelCache.createSession(modelId, model, sessionOptions, settings);
+        } finally {
+            sessionOptions.close();
+        }
 
         // 构建模型上下文
         ModelContext context = ModelContext.builder()
@@ -95,25 +135,76 @@ public class OnnxModelConfig {
                 .loadTimestamp(System.currentTimeMillis())
                 .build();
 
-        modelContexts.put(modelId, context);
-
         log.info("Model loaded successfully - ID: {}, Inputs: {}, Outputs: {}",
                 modelId, session.getInputInfo().keySet(), session.getOutputInfo().keySet());
+        return context;
     }
 
     /**
-     * 配置会话参数（优化推理性能）
+     * 按模型配置构建会话参数（优化推理性能）
+     * <p>线程数未配置时按容器可用CPU数在启用的模型间均分，避免多模型各自按整机核数开线程导致过量订阅</p>
      *
-     * @return
+     * @param modelId  模型标识（用于日志）
+     * @param settings 模型会话参数
+     * @return 会话参数
      * @throws OrtException
      */
-    private OrtSession.SessionOptions createSessionOptions() throws OrtException {
+    private OrtSession.SessionOptions createSessionOptions(String modelId, ModelProperties.Session settings)
+            throws OrtException {
+        int cpuShare = Math.max(1, ContainerCpuLimits.availableCpus() / Math.max(1, countEnabledModels()));
+        int intraOpThreads = settings.getIntraOpThreads() > 0 ? settings.getIntraOpThreads() : cpuShare;
+        int interOpThreads = settings.getInterOpThreads() > 0 ? settings.getInterOpThreads() : Math.max(1, intraOpThreads / 2);
+
         OrtSession.SessionOptions sessionOptions = new OrtSession.SessionOptions();
-        int cpuCoreNum = Runtime.getRuntime().availableProcessors();
-        sessionOptions.setInterOpNumThreads(Math.max(1, cpuCoreNum / 2));                   // 跨算子线程数
-        sessionOptions.setIntraOpNumThreads(cpuCoreNum);                                    // 算子内线程数
-        sessionOptions.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);    // 全量优化
+        sessionOptions.setExecutionMode(settings.getExecutionMode());                       // 执行模式
+        sessionOptions.setOptimizationLevel(settings.getOptimizationLevel());               // 图优化级别
+        if (settings.getMemoryPatternOptimization() != null) {
+            sessionOptions.setMemoryPatternOptimization(settings.getMemoryPatternOptimization());
+        }
+        if (settings.getCpuArenaAllocator() != null) {
+            sessionOptions.setCPUArenaAllocator(settings.getCpuArenaAllocator());
+        }
+
+        if (ortProperties.isGlobalThreadPools()) {
+            // 使用环境级全局线程池，会话级线程数与自旋配置不生效
+            sessionOptions.disablePerSessionThreads();
+            log.info("Session options - Model: {}, global thread pools, mode: {}, optLevel: {}, memPattern: {}, cpuArena: {}",
+                    modelId, settings.getExecutionMode(), settings.getOptimizationLevel(),
+                    defaultIfNull(settings.getMemoryPatternOptimization()), defaultIfNull(settings.getCpuArenaAllocator()));
+            return sessionOptions;
+        }
+
+        sessionOptions.setIntraOpNumThreads(intraOpThreads);                                // 算子内线程数
+        if (settings.getExecutionMode() == OrtSession.SessionOptions.ExecutionMode.PARALLEL) {
+            sessionOptions.setInterOpNumThreads(interOpThreads);                            // 跨算子线程数
+        }
+        if (settings.getAllowSpinning() != null) {
+            String spinning = settings.getAllowSpinning() ? "1" : "0";
+            sessionOptions.addConfigEntry(INTRA_OP_SPINNING_KEY, spinning);
+            sessionOptions.addConfigEntry(INTER_OP_SPINNING_KEY, spinning);
+        }
+
+        log.info("Session options - Model: {}, intraOp: {}, interOp: {}, mode: {}, optLevel: {}, memPattern: {}, "
+                        + "cpuArena: {}, spinning: {}",
+                modelId, intraOpThreads,
+                settings.getExecutionMode() == OrtSession.SessionOptions.ExecutionMode.PARALLEL ? interOpThreads : "-",
+                settings.getExecutionMode(), settings.getOptimizationLevel(),
+                defaultIfNull(settings.getMemoryPatternOptimization()), defaultIfNull(settings.getCpuArenaAllocator()),
+                defaultIfNull(settings.getAllowSpinning()));
         return sessionOptions;
     }
 
+    private int countEnabledModels() {
+        if (modelProperties.getConfigs() == null) {
+            return 1;
+        }
+        return (int) modelProperties.getConfigs().values().stream()
+                .filter(ModelProperties.ModelConfig::isEnabled)
+                .count();
+    }
+
+    private static Object defaultIfNull(Boolean value) {
+        return value != null ? value : "default";
+    }
+
 }
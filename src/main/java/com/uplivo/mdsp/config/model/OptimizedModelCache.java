@@ -0,0 +1,165 @@
+package com.uplivo.mdsp.config.model;
+
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import com.uplivo.mdsp.config.properties.ModelProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * @Description 图优化结果缓存：首次加载时由ONNX Runtime输出优化后的模型文件，之后的启动直接加载该文件并关闭图优化
+ * <p>缓存键为 SHA-256(模型内容 + ORT版本 + CPU架构 + 图优化级别 + 执行模式)，模型、运行时或优化参数任一变化都会生成新文件；
+ * 优化结果先写入临时文件再原子改名，多个实例共享缓存目录时不会读到写了一半的文件；缓存文件加载失败时删除并回退为原始模型重新优化。
+ * 会话创建失败时删除临时文件；新缓存文件就位后清理该模型其他键的旧缓存文件，以及超过一定时间的遗留临时文件（进程中途退出所致），
+ * 重训模型与热加载不会使缓存目录无限增长。
+ * ALL_OPT级别包含与CPU指令集相关的布局优化，缓存目录不应在不同硬件类型的节点间共享</p>
+ *
+ * @Author charles
+ * @Date 2025/10/31 10:15
+ * @Version 1.0.0
+ */
+@Slf4j
+@Component
+public class OptimizedModelCache {
+
+    private static final String CACHE_FILE_SUFFIX = ".optimized.onnx";
+
+    /** 临时文件超过该时长未完成改名即视为遗留文件（避免误删其他实例正在写入的临时文件） */
+    private static final long ORPHAN_TEMP_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final OrtEnvironment ortEnvironment;
+    private final ModelProperties.OptimizedCache config;
+
+    public OptimizedModelCache(OrtEnvironment ortEnvironment, ModelProperties modelProperties) {
+        this.ortEnvironment = ortEnvironment;
+        this.config = modelProperties.getOptimizedCache() != null
+                ? modelProperties.getOptimizedCache()
+                : new ModelProperties.OptimizedCache();
+    }
+
+    /**
+     * 创建会话：命中缓存时加载优化后的模型并关闭图优化，否则按原参数优化并写入缓存
+     *
+     * @param modelId        模型标识
+     * @param model          原始模型（直接内存缓冲区，见ModelResourceReader）
+     * @param sessionOptions 会话参数（命中缓存时其图优化级别被改为NO_OPT；缓存失效回退时复用同一实例，由调用方在返回后关闭）
+     * @param settings       模型会话配置
+     * @return 推理会话
+     */
+    public OrtSession createSession(String modelId, ByteBuffer model, OrtSession.SessionOptions sessionOptions,
+                                    ModelProperties.Session settings) throws OrtException, IOException {
+        OrtSession.SessionOptions.OptLevel optLevel = settings.getOptimizationLevel();
+        if (!config.isEnabled() || optLevel == OrtSession.SessionOptions.OptLevel.NO_OPT) {
+            return ortEnvironment.createSession(model, sessionOptions);
+        }
+
+        long start = System.currentTimeMillis();
+        Path cacheDir = Paths.get(config.getDir());
+        Files.createDirectories(cacheDir);
+        String cacheKey = cacheKey(model, settings);
+        Path cachedFile = cacheDir.resolve(modelId + "-" + cacheKey + CACHE_FILE_SUFFIX);
+
+        if (Files.isRegularFile(cachedFile)) {
+            sessionOptions.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.NO_OPT);
+            try {
+                OrtSession session = ortEnvironment.createSession(cachedFile.toString(), sessionOptions);
+                log.info("Model [{}] loaded from optimized cache in {} ms - {}",
+                        modelId, System.currentTimeMillis() - start, cachedFile);
+                return session;
+            } catch (OrtException e) {
+                log.warn("Model [{}] optimized cache unusable, re-optimizing from source - {}", modelId, cachedFile, e);
+                Files.deleteIfExists(cachedFile);
+                sessionOptions.setOptimizationLevel(optLevel);
+            }
+        }
+
+        // 优化结果先写临时文件，会话创建成功后原子改名为缓存文件
+        Path tempFile = cacheDir.resolve(modelId + "-" + cacheKey + "." + UUID.randomUUID() + CACHE_FILE_SUFFIX);
+        sessionOptions.setOptimizedModelFilePath(tempFile.toString());
+        OrtSession session;
+        try {
+            session = ortEnvironment.createSession(model, sessionOptions);
+        } catch (OrtException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        try {
+            Files.move(tempFile, cachedFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info("Model [{}] optimized in {} ms, cached - {}", modelId, System.currentTimeMillis() - start, cachedFile);
+        } catch (IOException e) {
+            log.warn("Model [{}] failed to persist optimized model - {}", modelId, cachedFile, e);
+            Files.deleteIfExists(tempFile);
+            return session;
+        }
+        pruneStaleFiles(cacheDir, modelId, cachedFile);
+        return session;
+    }
+
+    /**
+     * 清理该模型的旧缓存文件（其他缓存键）与遗留临时文件，清理失败只记录日志
+     */
+    private void pruneStaleFiles(Path cacheDir, String modelId, Path currentFile) {
+        Pattern cacheFile = Pattern.compile(Pattern.quote(modelId) + "-[0-9a-f]{32}" + Pattern.quote(CACHE_FILE_SUFFIX));
+        Pattern tempFile = Pattern.compile(Pattern.quote(modelId) + "-[0-9a-f]{32}\\.[0-9a-f-]{36}"
+                + Pattern.quote(CACHE_FILE_SUFFIX));
+        FileTime orphanBefore = FileTime.fromMillis(System.currentTimeMillis() - ORPHAN_TEMP_MILLIS);
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.filter(file -> !file.equals(currentFile)).forEach(file -> {
+                String name = file.getFileName().toString();
+                try {
+                    boolean stale = cacheFile.matcher(name).matches()
+                            || (tempFile.matcher(name).matches()
+                            && Files.getLastModifiedTime(file).compareTo(orphanBefore) < 0);
+                    if (stale && Files.deleteIfExists(file)) {
+                        log.info("Model [{}] stale optimized cache file removed - {}", modelId, file);
+                    }
+                } catch (IOException e) {
+                    log.warn("Model [{}] failed to remove stale optimized cache file - {}", modelId, file, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Model [{}] failed to scan optimized cache dir - {}", modelId, cacheDir, e);
+        }
+    }
+
+    /**
+     * 缓存键：模型内容与影响图优化结果的运行时参数的SHA-256（取前32个十六进制字符）
+     */
+    private String cacheKey(ByteBuffer model, ModelProperties.Session settings) {
+        MessageDigest digest = newSha256();
+        digest.update(model.duplicate());
+        String runtime = String.join("|", ortEnvironment.getVersion(), System.getProperty("os.arch"),
+                settings.getOptimizationLevel().name(), settings.getExecutionMode().name());
+        digest.update(runtime.getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.substring(0, 32);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.uplivo.mdsp.config.properties;
 
+import ai.onnxruntime.OrtSession;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -17,6 +18,18 @@ import java.util.Map;
 @ConfigurationProperties(prefix = "model")
 public class ModelProperties {
     private Map<String, ModelConfig> configs;
+    /**
+     * 模型热加载配置
+     */
+    private Reload reload = new Reload();
+    /**
+     * 图优化结果缓存配置
+     */
+    private OptimizedCache optimizedCache = new OptimizedCache();
+    /**
+     * 启动时并行加载模型会话与预处理参数的线程数（0表示自动：min(启用模型数 × 2, 容器可用CPU数)）
+     */
+    private int loadThreads = 0;
 
     @Data
     public static class ModelConfig {
@@ -29,5 +42,141 @@ public class ModelProperties {
         private String version;
         private String type;
         private String description;
+        /**
+         * 是否在推理前合并批内编码结果相同的行（只推理唯一行，结果按行展开）
+         */
+        private boolean deduplicateRows = true;
+        /**
+         * 跨请求动态微批配置（默认关闭）
+         */
+        private MicroBatch microBatch = new MicroBatch();
+        /**
+         * ONNX Runtime会话参数（未配置项按容器CPU配额自动推导或沿用ORT默认值）
+         */
+        private Session session = new Session();
+        /**
+         * 推理准入控制（限制同时执行的session.run数）
+         */
+        private Admission admission = new Admission();
+        /**
+         * 打分结果缓存（按编码后特征行缓存预测分）
+         */
+        private ScoreCache scoreCache = new ScoreCache();
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class MicroBatch {
+        /**
+         * 是否启用跨请求微批
+         */
+        private boolean enabled = false;
+        /**
+         * 单次推理的最大样本数（达到即触发推理）
+         */
+        private int maxBatchSize = 64;
+        /**
+         * 首个请求入队后的最长等待时间（微秒，超时即触发推理）
+         */
+        private long maxWaitMicros = 500;
+        /**
+         * 等待队列容量（队列满时请求直接推理，不再排队）
+         */
+        private int queueCapacity = 1024;
+    }
+
+    @Data
+    public static class Session {
+        /**
+         * 算子内线程数（0表示自动：容器可用CPU数按启用模型数均分）
+         */
+        private int intraOpThreads = 0;
+        /**
+         * 算子间线程数（仅PARALLEL执行模式生效；0表示自动：算子内线程数的一半）
+         */
+        private int interOpThreads = 0;
+        /**
+         * 执行模式：SEQUENTIAL（低延迟，默认）/ PARALLEL（多分支图提升吞吐）
+         */
+        private OrtSession.SessionOptions.ExecutionMode executionMode = OrtSession.SessionOptions.ExecutionMode.SEQUENTIAL;
+        /**
+         * 图优化级别
+         */
+        private OrtSession.SessionOptions.OptLevel optimizationLevel = OrtSession.SessionOptions.OptLevel.ALL_OPT;
+        /**
+         * 是否启用内存复用模式优化（为空沿用ORT默认值：启用；输入形状多变时可关闭）
+         */
+        private Boolean memoryPatternOptimization;
+        /**
+         * 是否启用CPU内存池（为空沿用ORT默认值：启用；关闭可降低常驻内存）
+         */
+        private Boolean cpuArenaAllocator;
+        /**
+         * 线程空闲时是否自旋等待（为空沿用ORT默认值：自旋；CPU受限的容器建议关闭，避免空转抢占请求线程）
+         */
+        private Boolean allowSpinning;
+    }
+
+    @Data
+    public static class Admission {
+        /**
+         * 同时执行推理的最大请求数（0表示自动：容器可用CPU数；负数表示不限制）
+         */
+        private int maxConcurrentRuns = 0;
+        /**
+         * 排队等待准入的最长时间（毫秒），超时请求直接失败
+         */
+        private long queueTimeoutMillis = 1000;
+    }
+
+    @Data
+    public static class ScoreCache {
+        /**
+         * 是否启用打分结果缓存
+         */
+        private boolean enabled = false;
+        /**
+         * 缓存占用内存上限（字节，按单条估算大小折算容量）
+         */
+        private long maxBytes = 64L * 1024 * 1024;
+        /**
+         * 写入后过期时间（毫秒）
+         */
+        private long ttlMillis = 60000;
+    }
+
+    @Data
+    public static class OptimizedCache {
+        /**
+         * 是否缓存ORT图优化后的模型（之后的启动加载优化后的模型并关闭图优化）
+         */
+        private boolean enabled = false;
+        /**
+         * 缓存目录（建议挂载为节点本地持久卷，仅在相同硬件类型的实例间共享）
+         */
+        private String dir = System.getProperty("java.io.tmpdir") + "/mdsp-ort-cache";
+    }
+
+    @Data
+    public static class Reload {
+        /**
+         * 是否监听模型文件目录，文件变更后自动热加载（仅对文件系统上的模型生效）
+         */
+        private boolean watchEnabled = false;
+        /**
+         * 文件变更后的防抖时间（毫秒），等待文件写入完成后再加载
+         */
+        private long debounceMillis = 2000;
+        /**
+         * 新会话预热批大小（全零输入，触发内存分配与算子初始化）
+         */
+        private int warmupBatchSize = 64;
+        /**
+         * 是否开放热加载管理接口 POST /admin/model/reload（默认关闭，关闭时接口不注册）
+         */
+        private boolean adminEnabled = false;
+        /**
+         * 管理接口共享密钥：请求头 X-Admin-Token 须与之一致；未配置时拒绝所有管理请求
+         */
+        private String adminToken;
+    }
+}
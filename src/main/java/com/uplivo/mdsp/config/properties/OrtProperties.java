@@ -0,0 +1,33 @@
+package com.uplivo.mdsp.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Description ONNX Runtime全局环境参数：全局线程池（所有会话共享）
+ * @Author charles
+ * @Date 2025/10/30 14:05
+ * @Version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ort")
+public class OrtProperties {
+    /**
+     * 是否启用全局线程池（启用后各会话不再创建私有线程池，会话级线程数配置不生效）
+     */
+    private boolean globalThreadPools = false;
+    /**
+     * 全局算子内线程数（0表示自动：容器可用CPU数）
+     */
+    private int globalIntraOpThreads = 0;
+    /**
+     * 全局算子间线程数（0表示自动：1，仅PARALLEL执行模式的会话使用）
+     */
+    private int globalInterOpThreads = 0;
+    /**
+     * 全局线程池空闲时是否自旋等待（为空沿用ORT默认值：自旋）
+     */
+    private Boolean globalAllowSpinning;
+}
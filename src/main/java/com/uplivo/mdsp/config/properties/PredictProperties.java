@@ -0,0 +1,33 @@
+package com.uplivo.mdsp.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Description 预测请求执行参数：多模型并行打分线程池与请求超时
+ * @Author charles
+ * @Date 2025/10/23 17:40
+ * @Version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "predict")
+public class PredictProperties {
+    /**
+     * 模型分组打分线程数（默认CPU核数；单模型请求同样在该线程池执行以受请求超时约束）
+     */
+    private int parallelThreads = Runtime.getRuntime().availableProcessors();
+    /**
+     * 并行打分任务队列容量（队列满时由请求线程直接执行）
+     */
+    private int queueCapacity = 256;
+    /**
+     * 单次请求打分的整体超时（毫秒），超时未完成的模型分组按失败分数返回；微批结果的等待上限同样取该值
+     */
+    private long timeoutMillis = 1000;
+    /**
+     * NDJSON流式打分接口的内部批大小（行数），决定服务端内存占用上限
+     */
+    private int streamBatchSize = 1024;
+}
@@ -0,0 +1,52 @@
+package com.uplivo.mdsp.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @Description 启动预热参数：合成样本批次、延迟稳定判定与就绪门控
+ * @Author charles
+ * @Date 2025/10/29 15:10
+ * @Version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+    /**
+     * 是否在启动后执行预热（关闭时服务启动即就绪）
+     */
+    private boolean enabled = true;
+    /**
+     * 每轮依次执行的合成批大小
+     */
+    private List<Integer> batchSizes = Arrays.asList(1, 16, 64, 256);
+    /**
+     * 延迟探测批大小（每轮额外执行一次并计时，用于判定延迟是否稳定）
+     */
+    private int probeBatchSize = 64;
+    /**
+     * 稳定判定窗口（探测次数），相邻两个窗口的延迟中位数比较
+     */
+    private int windowSize = 20;
+    /**
+     * 最少预热轮数（未达到前不做稳定判定）
+     */
+    private int minRounds = 50;
+    /**
+     * 稳定容差：相邻窗口延迟中位数的相对变化不超过该比例即视为稳定
+     */
+    private double stabilityTolerance = 0.1;
+    /**
+     * 单模型预热最长时间（秒）
+     */
+    private long maxDurationSeconds = 120;
+    /**
+     * 超时仍未稳定时是否视为就绪（避免噪声环境下节点永远不就绪）
+     */
+    private boolean readyOnTimeout = true;
+}
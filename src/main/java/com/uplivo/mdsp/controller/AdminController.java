@@ -0,0 +1,69 @@
+package com.uplivo.mdsp.controller;
+
+import com.uplivo.mdsp.common.enums.ErrorCode;
+import com.uplivo.mdsp.common.response.ApiResponse;
+import com.uplivo.mdsp.config.properties.ModelProperties;
+import com.uplivo.mdsp.service.reload.ModelReloadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+/**
+ * @Description 管理接口控制器：模型热加载
+ * <p>仅在 model.reload.admin-enabled=true 时注册；请求须携带与 model.reload.admin-token 一致的 X-Admin-Token 请求头，
+ * 未配置密钥时拒绝所有请求</p>
+ *
+ * @Author charles
+ * @Date 2025/10/29 11:05
+ * @Version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/model")
+@ConditionalOnProperty(prefix = "model.reload", name = "admin-enabled", havingValue = "true")
+public class AdminController {
+
+    private static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final ModelReloadService modelReloadService;
+    private final ModelProperties modelProperties;
+
+    /**
+     * 热加载指定模型（新会话预热完成后原子替换，失败时原会话继续服务）
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reload(
+            @RequestParam String modelId,
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        if (!isAuthorized(token)) {
+            log.warn("Model reload rejected - Model: {}, missing or invalid {}", modelId, ADMIN_TOKEN_HEADER);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponse.error(ErrorCode.UNAUTHORIZED));
+        }
+        log.info("Model reload requested - Model: {}", modelId);
+        return ResponseEntity.ok(ApiResponse.success(modelReloadService.reload(modelId)));
+    }
+
+    /**
+     * 常量时间比较请求密钥与配置密钥（未配置密钥时一律拒绝）
+     */
+    private boolean isAuthorized(String token) {
+        ModelProperties.Reload reload = modelProperties.getReload();
+        String expected = reload != null ? reload.getAdminToken() : null;
+        if (expected == null || expected.isEmpty() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,11 +1,19 @@
 package com.uplivo.mdsp.controller;
 
+import com.uplivo.mdsp.common.enums.ErrorCode;
+import com.uplivo.mdsp.common.response.ApiResponse;
+import com.uplivo.mdsp.service.warmup.ModelWarmupService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 /**
  * @Description 服务健康检查控制器
  * @Author charles
@@ -14,12 +22,28 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @Slf4j
+@RequiredArgsConstructor
 @RequestMapping("/health")
 public class HealthController {
 
+    private final ModelWarmupService modelWarmupService;
+
     @ResponseBody
     @GetMapping(value = "/ping")
     public String healthCheck() {
         return "success";
     }
+
+    /**
+     * 就绪探测：预热完成且各模型延迟稳定后返回200，否则返回503（供负载均衡摘除冷节点）
+     */
+    @GetMapping(value = "/ready")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> ready() {
+        Map<String, Object> readiness = modelWarmupService.getReadiness();
+        if (modelWarmupService.isReady()) {
+            return ResponseEntity.ok(ApiResponse.success(readiness));
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ErrorCode.SERVICE_NOT_READY, "Warming up", readiness));
+    }
 }
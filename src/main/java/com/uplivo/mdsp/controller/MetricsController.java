@@ -0,0 +1,26 @@
+package com.uplivo.mdsp.controller;
+
+import com.uplivo.mdsp.core.metrics.LatencyMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * @Description 监控指标控制器，以Prometheus文本格式导出分阶段耗时直方图
+ * @Author charles
+ * @Date 2025/10/25 11:05
+ * @Version 1.0.0
+ */
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final LatencyMetrics latencyMetrics;
+
+    @GetMapping(value = "/metrics", produces = PROMETHEUS_CONTENT_TYPE)
+    public String metrics() {
+        return latencyMetrics.toPrometheusText();
+    }
+}
@@ -1,23 +1,49 @@
 package com.uplivo.mdsp.controller;
 
 import com.alibaba.fastjson2.JSONObject;
+import com.uplivo.mdsp.common.constants.AppConstants;
 import com.uplivo.mdsp.common.constants.ModelConstants;
 import com.uplivo.mdsp.common.enums.ErrorCode;
 import com.uplivo.mdsp.common.exception.ModelException;
 import com.uplivo.mdsp.common.response.ApiResponse;
+import com.uplivo.mdsp.config.properties.PredictProperties;
 import com.uplivo.mdsp.core.condition.ConditionRouter;
+import com.uplivo.mdsp.core.condition.RoutingResult;
+import com.uplivo.mdsp.core.metrics.LatencyMetrics;
+import com.uplivo.mdsp.core.metrics.Stage;
+import com.uplivo.mdsp.core.sample.ColumnarSampleBatch;
+import com.uplivo.mdsp.core.sample.SampleBatch;
+import com.uplivo.mdsp.domain.request.ColumnarFeatureRequest;
 import com.uplivo.mdsp.domain.request.FeatureRequest;
 import com.uplivo.mdsp.domain.response.ScoreResponse;
+import com.uplivo.mdsp.service.AbstractModelService;
 import com.uplivo.mdsp.service.ModelServiceFactory;
+import com.uplivo.mdsp.service.stream.DecodedRequest;
+import com.uplivo.mdsp.service.stream.NdjsonSampleReader;
+import com.uplivo.mdsp.service.stream.StreamingFeatureDecoder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @Description 模型服务RPC接口控制器，提供RESTful API作为RPC服务
@@ -31,31 +57,43 @@ import java.util.Map;
 @RequestMapping("/api/model")
 public class PredictController {
 
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
     private final ModelServiceFactory modelFactory;
     private final ConditionRouter conditionRouter;
+    private final ExecutorService predictExecutor;
+    private final PredictProperties predictProperties;
+    private final LatencyMetrics latencyMetrics;
+    private final StreamingFeatureDecoder streamingFeatureDecoder;
 
     /**
      * 多样本打分接口
      */
     @PostMapping("/predict")
-    public ApiResponse<ScoreResponse> predict(@RequestBody FeatureRequest request) {
+    public ApiResponse<ScoreResponse> predict(@RequestBody FeatureRequest request,
+                                              @RequestAttribute(name = AppConstants.REQUEST_START_NANOS,
+                                                      required = false) Long requestStartNanos) {
         // 参数校验
         if (request == null || CollectionUtils.isEmpty(request.getFeatures())) {
             throw new ModelException(ErrorCode.PARAM_ERROR, "Feature data cannot be empty");
         }
+        int sampleCount = request.getFeatures().size();
+        if (requestStartNanos != null) {
+            latencyMetrics.recordSince(Stage.PARSE, LatencyMetrics.ALL_MODELS, sampleCount, requestStartNanos);
+        }
         log.info("Received prediction request: requestId={}, sampleCount={}",
-                request.getRequestId(), request.getFeatures().size());
+                request.getRequestId(), sampleCount);
 
         try {
-            // 按条件路由到不同模型
-            Map<String, List<Map<String, String>>> featuresByModel =
-                    conditionRouter.groupFeaturesByCondition(request.getFeatures());
-
-            // 批量预测
-            Map<String, float[]> predictions = batchPredict(featuresByModel);
+            // 按条件路由到不同模型（携带样本下标）
+            long routeStart = System.nanoTime();
+            RoutingResult routing = conditionRouter.routeFeatures(request.getFeatures());
+            Map<String, List<Map<String, String>>> featuresByModel = routing.group(request.getFeatures());
+            latencyMetrics.recordSince(Stage.ROUTE, LatencyMetrics.ALL_MODELS, sampleCount, routeStart);
 
-            // 合并预测结果
-            float[] scores = mergeResults(request.getFeatures(), featuresByModel, predictions);
+            // 批量预测并合并结果
+            float[] scores = scoreRouted(routing,
+                    (service, model, rows) -> service.predict(featuresByModel.get(model)));
 
             ScoreResponse trafficScoreResponse = ScoreResponse.builder()
                     .requestId(request.getRequestId()).scores(scores)
@@ -68,6 +106,135 @@ public class PredictController {
         }
     }
 
+    /**
+     * 多样本打分接口（列式请求：列名只出现一次，样本按列顺序给出值数组）
+     */
+    @PostMapping("/predict/columnar")
+    public ApiResponse<ScoreResponse> predictColumnar(@RequestBody ColumnarFeatureRequest request,
+                                                      @RequestAttribute(name = AppConstants.REQUEST_START_NANOS,
+                                                              required = false) Long requestStartNanos) {
+        // 参数校验
+        if (request == null || request.getColumns() == null || request.getRows() == null
+                || request.getRows().length == 0) {
+            throw new ModelException(ErrorCode.PARAM_ERROR, "Feature data cannot be empty");
+        }
+        SampleBatch batch;
+        try {
+            batch = new ColumnarSampleBatch(request.getColumns(), request.getRows());
+        } catch (IllegalArgumentException e) {
+            throw new ModelException(ErrorCode.PARAM_ERROR, e.getMessage());
+        }
+        int sampleCount = batch.size();
+        if (requestStartNanos != null) {
+            latencyMetrics.recordSince(Stage.PARSE, LatencyMetrics.ALL_MODELS, sampleCount, requestStartNanos);
+        }
+        log.info("Received columnar prediction request: requestId={}, sampleCount={}, columnCount={}",
+                request.getRequestId(), sampleCount, batch.columnCount());
+
+        try {
+            // 按条件路由到不同模型（规则字段按列序号取值）
+            long routeStart = System.nanoTime();
+            RoutingResult routing = conditionRouter.routeBatch(batch);
+            latencyMetrics.recordSince(Stage.ROUTE, LatencyMetrics.ALL_MODELS, sampleCount, routeStart);
+
+            // 批量预测并合并结果
+            float[] scores = scoreRouted(routing, (service, model, rows) -> service.predict(batch, rows));
+
+            ScoreResponse scoreResponse = ScoreResponse.builder()
+                    .requestId(request.getRequestId()).scores(scores)
+                    .build();
+
+            return ApiResponse.success(scoreResponse);
+        } catch (Exception e) {
+            log.error("Columnar prediction process failed, requestId: {}", request.getRequestId(), e);
+            throw new ModelException(ErrorCode.MODEL_INFERENCE_FAILED, "Prediction processing failed");
+        }
+    }
+
+    /**
+     * 多样本打分接口（流式解析：请求格式与/predict一致，解析过程中完成路由与特征编码，不构建请求对象图）
+     */
+    @PostMapping("/predict/stream")
+    public ApiResponse<ScoreResponse> predictStream(HttpServletRequest httpRequest) {
+        long parseStart = System.nanoTime();
+        DecodedRequest decoded;
+        try {
+            decoded = streamingFeatureDecoder.decode(httpRequest.getInputStream());
+        } catch (IOException | RuntimeException e) {
+            log.error("Streaming request decode failed", e);
+            throw new ModelException(ErrorCode.PARAM_ERROR, "Invalid request body: " + e.getMessage());
+        }
+
+        try (DecodedRequest request = decoded) {
+            int sampleCount = request.getSampleCount();
+            if (sampleCount == 0) {
+                throw new ModelException(ErrorCode.PARAM_ERROR, "Feature data cannot be empty");
+            }
+            // 解析阶段已包含路由与特征编码
+            latencyMetrics.recordSince(Stage.PARSE, LatencyMetrics.ALL_MODELS, sampleCount, parseStart);
+            log.info("Received streaming prediction request: requestId={}, sampleCount={}",
+                    request.getRequestId(), sampleCount);
+
+            try {
+                // 批量预测并合并结果
+                float[] scores = scoreRouted(request.getRouting(),
+                        (service, model, rows) -> request.score(model));
+
+                ScoreResponse scoreResponse = ScoreResponse.builder()
+                        .requestId(request.getRequestId()).scores(scores)
+                        .build();
+
+                return ApiResponse.success(scoreResponse);
+            } catch (Exception e) {
+                log.error("Streaming prediction process failed, requestId: {}", request.getRequestId(), e);
+                throw new ModelException(ErrorCode.MODEL_INFERENCE_FAILED, "Prediction processing failed");
+            }
+        }
+    }
+
+    /**
+     * NDJSON流式批量打分接口：每行一个样本（支持Content-Encoding: gzip），按内部批大小分批路由打分，
+     * 每批完成后按输入顺序逐行写回分数（每行一个数值），服务端内存占用与上传总量无关
+     * <p>空行与解析失败的行输出失败分数，保证第N行分数对应第N行输入；响应开始写出后发生的异常只能中断输出</p>
+     */
+    @PostMapping("/predict/ndjson")
+    public void predictNdjson(HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+        InputStream body = httpRequest.getInputStream();
+        String contentEncoding = httpRequest.getHeader("Content-Encoding");
+        if (contentEncoding != null && contentEncoding.toLowerCase().contains("gzip")) {
+            body = new GZIPInputStream(body, 1 << 16);
+        }
+
+        httpResponse.setContentType(NDJSON_CONTENT_TYPE);
+        httpResponse.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        long totalRows = 0;
+        try (NdjsonSampleReader reader = new NdjsonSampleReader(body, predictProperties.getStreamBatchSize());
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(httpResponse.getOutputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+            NdjsonSampleReader.Chunk chunk;
+            while ((chunk = reader.next()) != null) {
+                SampleBatch batch = chunk.getBatch();
+                int sampleCount = batch.size();
+
+                // 按条件路由到不同模型（规则字段按列序号取值），无效行不参与路由与推理
+                long routeStart = System.nanoTime();
+                RoutingResult routing = conditionRouter.routeBatch(batch, chunk.getInvalidRows());
+                latencyMetrics.recordSince(Stage.ROUTE, LatencyMetrics.ALL_MODELS, sampleCount, routeStart);
+
+                // 批量预测并合并结果（无效行在合并时填充失败分数）
+                float[] scores = scoreRouted(routing, (service, model, rows) -> service.predict(batch, rows));
+
+                for (int i = 0; i < sampleCount; i++) {
+                    out.write(Float.toString(scores[i]));
+                    out.write('\n');
+                }
+                out.flush();
+                totalRows += sampleCount;
+            }
+        }
+        log.info("NDJSON streaming prediction completed - rows: {}", totalRows);
+    }
+
     @GetMapping("/info")
     public ApiResponse<Map<String, Object>> getModelInfo(@RequestParam String modelVersion) {
         if (modelVersion == null || modelVersion.trim().isEmpty()) {
@@ -84,46 +251,88 @@ public class PredictController {
     }
 
 
-    private Map<String, float[]> batchPredict(Map<String, List<Map<String, String>>> featuresByModel) {
+    /**
+     * 按路由结果分模型打分，并按样本下标合并为原始顺序
+     */
+    private float[] scoreRouted(RoutingResult routing, GroupScorer scorer) {
+        Map<String, float[]> predictions = batchPredict(routing.getIndexesByModel(), scorer);
+
+        long mergeStart = System.nanoTime();
+        float[] scores = mergeResults(routing, predictions);
+        latencyMetrics.recordSince(Stage.MERGE, LatencyMetrics.ALL_MODELS, routing.getSampleCount(), mergeStart);
+        return scores;
+    }
+
+    private Map<String, float[]> batchPredict(Map<String, int[]> rowsByModel, GroupScorer scorer) {
         Map<String, float[]> results = new HashMap<>();
-        featuresByModel.forEach((model, features) -> {
-            try {
-                float[] predictionScores = modelFactory.getServiceByVersion(model).predict(features);
-                results.put(model, predictionScores);
-            } catch (Exception e) {
-                log.error("Prediction failed for model: {}, sampleCount: {}", model, features.size(), e);
 
-                // 失败时填充默认值
-                float[] failureScores = new float[features.size()];
-                Arrays.fill(failureScores, ModelConstants.PREDICTION_FAILURE_SCORE);
-                results.put(model, failureScores);
+        // 各模型分组提交到打分线程池并行执行，整体耗时取决于最慢的分组；
+        // 单模型请求同样经线程池执行，以便与多模型请求共用 predict.timeout-millis 截止时间
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(predictProperties.getTimeoutMillis());
+        Map<String, Future<float[]>> futures = new HashMap<>();
+        rowsByModel.forEach((model, rows) ->
+                futures.put(model, predictExecutor.submit(() -> predictByModel(model, rows, scorer))));
+
+        futures.forEach((model, future) -> {
+            int sampleCount = rowsByModel.get(model).length;
+            try {
+                long remaining = deadline - System.nanoTime();
+                results.put(model, future.get(Math.max(0L, remaining), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // 超时分组放弃等待并尝试取消，按失败分数返回
+                future.cancel(true);
+                log.error("Prediction timed out for model: {}, sampleCount: {}, timeoutMillis: {}",
+                        model, sampleCount, predictProperties.getTimeoutMillis());
+                results.put(model, failureScores(sampleCount));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                results.put(model, failureScores(sampleCount));
+            } catch (ExecutionException e) {
+                log.error("Prediction failed for model: {}, sampleCount: {}", model, sampleCount, e.getCause());
+                results.put(model, failureScores(sampleCount));
             }
         });
 
         return results;
     }
 
-    private float[] mergeResults(List<Map<String, String>> original,
-                                 Map<String, List<Map<String, String>>> grouped,
-                                 Map<String, float[]> predictions) {
-        // 构建特征到原始索引的映射
-        float[] merged = new float[original.size()];
-        Map<Map<String, String>, Integer> featureIndexMap = new HashMap<>();
-        for (int i = 0; i < original.size(); i++) {
-            featureIndexMap.put(original.get(i), i);
+    /**
+     * 单模型分组打分（失败时填充默认分数）
+     */
+    private float[] predictByModel(String model, int[] rows, GroupScorer scorer) {
+        try {
+            return scorer.score(modelFactory.getServiceByVersion(model), model, rows);
+        } catch (Exception e) {
+            log.error("Prediction failed for model: {}, sampleCount: {}", model, rows.length, e);
+            return failureScores(rows.length);
         }
+    }
 
-        // 合并预测结果
-        grouped.forEach((model, features) -> {
-            float[] preds = predictions.get(model);
-            for (int i = 0; i < features.size(); i++) {
-                Integer originalIdx = featureIndexMap.get(features.get(i));
-                if (originalIdx != null && i < preds.length) {
-                    merged[originalIdx] = preds[i];
-                }
-            }
-        });
+    private float[] failureScores(int sampleCount) {
+        float[] failureScores = new float[sampleCount];
+        Arrays.fill(failureScores, ModelConstants.PREDICTION_FAILURE_SCORE);
+        return failureScores;
+    }
 
-        return merged;
+    /**
+     * 按路由下标将各模型预测结果回填到原始样本顺序
+     */
+    private float[] mergeResults(RoutingResult routing, Map<String, float[]> predictions) {
+        return routing.scatter(predictions, ModelConstants.PREDICTION_FAILURE_SCORE);
+    }
+
+    /**
+     * 单模型分组打分逻辑
+     */
+    @FunctionalInterface
+    private interface GroupScorer {
+        /**
+         * @param service 模型服务
+         * @param model   模型标识
+         * @param rows    该模型负责的样本下标（升序）
+         * @return 预测结果（顺序与rows一致）
+         */
+        float[] score(AbstractModelService service, String model, int[] rows);
     }
 }
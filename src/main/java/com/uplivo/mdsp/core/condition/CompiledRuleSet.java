@@ -0,0 +1,553 @@
+package com.uplivo.mdsp.core.condition;
+
+import com.uplivo.mdsp.core.sample.SampleBatch;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * @Description 编译后的路由规则集：按字段建立索引，规则命中集合以位图表示
+ * <p>规则按配置顺序编号（位图下标即优先级），每个字段按操作符分别建立等值/IN散列表、前缀散列表（开放寻址，
+ * 按出现过的前缀长度对取值的字符区间增量计算散列后探测，不截取子串）与数值区间分段表。路由时逐字段取出可满足的规则位图并求交，交集中最低位对应的规则即首个命中规则；
+ * 单样本代价与字段数、规则位图字数相关，不随规则条数线性增长</p>
+ *
+ * @Author charles
+ * @Date 2025/10/24 15:10
+ * @Version 1.0.0
+ */
+@Slf4j
+public final class CompiledRuleSet {
+
+    private final String defaultModel;
+    /** 规则目标模型（下标即规则序号） */
+    private final String[] targetModels;
+    /** 位图字数 */
+    private final int wordCount;
+    /** 可能命中的规则（排除条件自相矛盾的规则） */
+    private final long[] liveRules;
+    /** 规则涉及的字段 */
+    private final String[] fields;
+    private final FieldIndex[] fieldIndexes;
+
+    private CompiledRuleSet(String defaultModel, String[] targetModels, long[] liveRules,
+                            String[] fields, FieldIndex[] fieldIndexes) {
+        this.defaultModel = defaultModel;
+        this.targetModels = targetModels;
+        this.wordCount = liveRules.length;
+        this.liveRules = liveRules;
+        this.fields = fields;
+        this.fieldIndexes = fieldIndexes;
+    }
+
+    /**
+     * 编译路由规则（仅编译启用的规则，规则顺序即优先级）
+     * <p>同一规则在同一字段上的多个条件取交集：IN/EQ取值集合求交、前缀取最长者、区间求交；
+     * 条件自相矛盾的规则永不命中</p>
+     *
+     * @param config 条件配置
+     * @return 编译后的规则集
+     */
+    public static CompiledRuleSet compile(ConditionConfig config) {
+        List<ConditionConfig.ConditionRule> rules = new ArrayList<>();
+        if (config.getRules() != null) {
+            for (ConditionConfig.ConditionRule rule : config.getRules()) {
+                if (rule != null && rule.isEnabled()) {
+                    rules.add(rule);
+                }
+            }
+        }
+
+        int ruleCount = rules.size();
+        int wordCount = Math.max(1, (ruleCount + 63) >>> 6);
+        String[] targetModels = new String[ruleCount];
+        long[] liveRules = new long[wordCount];
+        Map<String, FieldIndexBuilder> builders = new LinkedHashMap<>();
+
+        for (int r = 0; r < ruleCount; r++) {
+            ConditionConfig.ConditionRule rule = rules.get(r);
+            targetModels[r] = rule.getTargetModel();
+
+            Map<String, FieldConstraint> constraints = new LinkedHashMap<>();
+            boolean satisfiable = true;
+            if (rule.getConditions() != null) {
+                for (ConditionConfig.Condition condition : rule.getConditions()) {
+                    satisfiable &= constraints.computeIfAbsent(condition.getField(), f -> new FieldConstraint())
+                            .add(condition);
+                }
+            }
+            for (FieldConstraint constraint : constraints.values()) {
+                satisfiable &= constraint.isSatisfiable();
+            }
+            if (!satisfiable) {
+                log.warn("Condition rule can never match, skipped - Rule: {}, Target: {}",
+                        rule.getName(), rule.getTargetModel());
+                continue;
+            }
+
+            setBit(liveRules, r);
+            for (Map.Entry<String, FieldConstraint> entry : constraints.entrySet()) {
+                builders.computeIfAbsent(entry.getKey(), f -> new FieldIndexBuilder()).add(r, entry.getValue());
+            }
+        }
+
+        String[] fields = builders.keySet().toArray(new String[0]);
+        FieldIndex[] fieldIndexes = new FieldIndex[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            fieldIndexes[i] = builders.get(fields[i]).build(liveRules);
+        }
+        return new CompiledRuleSet(config.getDefaultModel(), targetModels, liveRules, fields, fieldIndexes);
+    }
+
+    /**
+     * 创建路由所需的临时位图（单线程复用，可在同一批次的样本间共享）
+     */
+    public long[] newScratch() {
+        return new long[wordCount * 2];
+    }
+
+    /**
+     * 为单个样本选择模型
+     *
+     * @param sample  样本特征
+     * @param scratch newScratch创建的临时位图
+     * @return 首个命中规则的目标模型，无命中时返回默认模型
+     */
+    public String route(Map<String, String> sample, long[] scratch) {
+        System.arraycopy(liveRules, 0, scratch, 0, wordCount);
+        for (int i = 0; i < fields.length; i++) {
+            if (!fieldIndexes[i].retainMatching(sample.get(fields[i]), scratch, wordCount)) {
+                return defaultModel;
+            }
+        }
+        return firstMatch(scratch);
+    }
+
+    /**
+     * 解析规则字段在批次中的列序号（批次级解析一次，供route逐行复用）
+     *
+     * @param batch 样本批次
+     * @return 规则字段 → 列序号（批次中不存在的字段为-1）
+     */
+    public int[] resolveFields(SampleBatch batch) {
+        int[] columns = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            columns[i] = batch.columnIndex(fields[i]);
+        }
+        return columns;
+    }
+
+    /**
+     * 为批次中的单行选择模型
+     *
+     * @param batch        样本批次
+     * @param row          行号
+     * @param fieldColumns resolveFields解析的列序号
+     * @param scratch      newScratch创建的临时位图
+     * @return 首个命中规则的目标模型，无命中时返回默认模型
+     */
+    public String route(SampleBatch batch, int row, int[] fieldColumns, long[] scratch) {
+        System.arraycopy(liveRules, 0, scratch, 0, wordCount);
+        for (int i = 0; i < fields.length; i++) {
+            String value = fieldColumns[i] >= 0 ? batch.value(row, fieldColumns[i]) : null;
+            if (!fieldIndexes[i].retainMatching(value, scratch, wordCount)) {
+                return defaultModel;
+            }
+        }
+        return firstMatch(scratch);
+    }
+
+    /**
+     * 按规则字段顺序给出的取值选择模型（流式解析时使用）
+     *
+     * @param fieldValues 规则字段取值（下标与getField一致，缺失为null）
+     * @param scratch     newScratch创建的临时位图
+     * @return 首个命中规则的目标模型，无命中时返回默认模型
+     */
+    public String route(String[] fieldValues, long[] scratch) {
+        System.arraycopy(liveRules, 0, scratch, 0, wordCount);
+        for (int i = 0; i < fields.length; i++) {
+            if (!fieldIndexes[i].retainMatching(fieldValues[i], scratch, wordCount)) {
+                return defaultModel;
+            }
+        }
+        return firstMatch(scratch);
+    }
+
+    private String firstMatch(long[] scratch) {
+        for (int w = 0; w < wordCount; w++) {
+            long word = scratch[w];
+            if (word != 0) {
+                return targetModels[(w << 6) + Long.numberOfTrailingZeros(word)];
+            }
+        }
+        return defaultModel;
+    }
+
+    public String getDefaultModel() {
+        return defaultModel;
+    }
+
+    public int getRuleCount() {
+        return targetModels.length;
+    }
+
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    public String getField(int idx) {
+        return fields[idx];
+    }
+
+    private static void setBit(long[] bits, int idx) {
+        bits[idx >>> 6] |= 1L << idx;
+    }
+
+    /**
+     * 单个规则在单个字段上的条件合并结果
+     */
+    private static final class FieldConstraint {
+        /** 等值/IN允许的取值（null表示无此类条件） */
+        private Set<String> allowedValues;
+        /** 最长前缀（null表示无此类条件） */
+        private String prefix;
+        private boolean prefixConsistent = true;
+        private boolean hasRange;
+        private double lower = Double.NEGATIVE_INFINITY;
+        private double upper = Double.POSITIVE_INFINITY;
+
+        /**
+         * 合并条件
+         *
+         * @return 条件本身是否可满足
+         */
+        private boolean add(ConditionConfig.Condition condition) {
+            ConditionConfig.Operator operator = condition.getOperator() != null
+                    ? condition.getOperator()
+                    : ConditionConfig.Operator.EQ;
+            switch (operator) {
+                case IN:
+                    retainValues(condition.getValues() != null
+                            ? new HashSet<>(condition.getValues())
+                            : new HashSet<>());
+                    break;
+                case PREFIX:
+                    if (condition.getValue() == null) {
+                        return false;
+                    }
+                    mergePrefix(condition.getValue());
+                    break;
+                case RANGE:
+                    hasRange = true;
+                    if (condition.getMin() != null) {
+                        lower = Math.max(lower, condition.getMin());
+                    }
+                    if (condition.getMax() != null) {
+                        upper = Math.min(upper, condition.getMax());
+                    }
+                    break;
+                case EQ:
+                default:
+                    Set<String> single = new HashSet<>();
+                    single.add(condition.getValue());
+                    retainValues(single);
+                    break;
+            }
+            return true;
+        }
+
+        private void retainValues(Set<String> values) {
+            values.remove(null);
+            if (allowedValues == null) {
+                allowedValues = values;
+            } else {
+                allowedValues.retainAll(values);
+            }
+        }
+
+        private void mergePrefix(String value) {
+            if (prefix == null || value.startsWith(prefix)) {
+                prefix = value;
+            } else if (!prefix.startsWith(value)) {
+                prefixConsistent = false;
+            }
+        }
+
+        private boolean isSatisfiable() {
+            if (allowedValues != null) {
+                if (allowedValues.isEmpty()) {
+                    return false;
+                }
+                if (prefix != null) {
+                    allowedValues.removeIf(v -> !v.startsWith(prefix));
+                    if (allowedValues.isEmpty()) {
+                        return false;
+                    }
+                }
+            }
+            return prefixConsistent && (!hasRange || lower < upper);
+        }
+    }
+
+    /**
+     * 字段索引构建器
+     */
+    private static final class FieldIndexBuilder {
+        private final Map<Integer, Set<String>> valueRules = new LinkedHashMap<>();
+        private final Map<Integer, String> prefixRules = new LinkedHashMap<>();
+        private final Map<Integer, double[]> rangeRules = new LinkedHashMap<>();
+
+        private void add(int rule, FieldConstraint constraint) {
+            if (constraint.allowedValues != null) {
+                valueRules.put(rule, constraint.allowedValues);
+            }
+            if (constraint.prefix != null) {
+                prefixRules.put(rule, constraint.prefix);
+            }
+            if (constraint.hasRange) {
+                rangeRules.put(rule, new double[]{constraint.lower, constraint.upper});
+            }
+        }
+
+        private FieldIndex build(long[] liveRules) {
+            int wordCount = liveRules.length;
+
+            // 等值/IN：取值 → 规则位图
+            long[] valueFree = liveRules.clone();
+            Map<String, long[]> valueTable = new HashMap<>();
+            valueRules.forEach((rule, values) -> {
+                clearBit(valueFree, rule);
+                for (String value : values) {
+                    setBit(valueTable.computeIfAbsent(value, v -> new long[wordCount]), rule);
+                }
+            });
+
+            // 前缀：前缀 → 规则位图，按前缀长度分组探测
+            long[] prefixFree = liveRules.clone();
+            Map<String, long[]> prefixTable = new HashMap<>();
+            TreeSet<Integer> prefixLengths = new TreeSet<>();
+            prefixRules.forEach((rule, prefix) -> {
+                clearBit(prefixFree, rule);
+                setBit(prefixTable.computeIfAbsent(prefix, p -> new long[wordCount]), rule);
+                prefixLengths.add(prefix.length());
+            });
+
+            // 区间：端点切分为互不相交的基本区间，每个区间预先计算覆盖它的规则位图
+            long[] rangeFree = liveRules.clone();
+            TreeSet<Double> boundarySet = new TreeSet<>();
+            rangeRules.forEach((rule, range) -> {
+                clearBit(rangeFree, rule);
+                if (!Double.isInfinite(range[0])) {
+                    boundarySet.add(range[0]);
+                }
+                if (!Double.isInfinite(range[1])) {
+                    boundarySet.add(range[1]);
+                }
+            });
+            double[] boundaries = new double[boundarySet.size()];
+            int b = 0;
+            for (Double boundary : boundarySet) {
+                boundaries[b++] = boundary;
+            }
+            long[][] segments = new long[boundaries.length + 1][];
+            for (int s = 0; s < segments.length; s++) {
+                segments[s] = new long[wordCount];
+            }
+            rangeRules.forEach((rule, range) -> {
+                int from = Double.isInfinite(range[0]) ? 0 : Arrays.binarySearch(boundaries, range[0]) + 1;
+                int to = Double.isInfinite(range[1]) ? boundaries.length + 1 : Arrays.binarySearch(boundaries, range[1]) + 1;
+                for (int s = from; s < to; s++) {
+                    setBit(segments[s], rule);
+                }
+            });
+
+            int[] lengths = new int[prefixLengths.size()];
+            int l = 0;
+            for (Integer length : prefixLengths) {
+                lengths[l++] = length;
+            }
+            return new FieldIndex(valueRules.isEmpty() ? null : valueFree, valueTable,
+                    prefixRules.isEmpty() ? null : prefixFree, new PrefixTable(prefixTable), lengths,
+                    rangeRules.isEmpty() ? null : rangeFree, boundaries, segments);
+        }
+
+        private static void clearBit(long[] bits, int idx) {
+            bits[idx >>> 6] &= ~(1L << idx);
+        }
+    }
+
+    /**
+     * 单字段索引：每类操作符给出"不受该类条件约束的规则"与"取值可满足的规则"，二者之并即为可保留的规则
+     */
+    private static final class FieldIndex {
+        /** 不含等值/IN条件的规则（null表示该字段无此类条件） */
+        private final long[] valueFree;
+        private final Map<String, long[]> valueTable;
+        /** 不含前缀条件的规则（null表示该字段无此类条件） */
+        private final long[] prefixFree;
+        private final PrefixTable prefixTable;
+        /** 出现过的前缀长度（升序） */
+        private final int[] prefixLengths;
+        /** 不含区间条件的规则（null表示该字段无此类条件） */
+        private final long[] rangeFree;
+        /** 区间端点（升序去重） */
+        private final double[] boundaries;
+        /** 基本区间 → 覆盖该区间的规则，segments[i] 对应 [boundaries[i-1], boundaries[i]) */
+        private final long[][] segments;
+
+        private FieldIndex(long[] valueFree, Map<String, long[]> valueTable,
+                           long[] prefixFree, PrefixTable prefixTable, int[] prefixLengths,
+                           long[] rangeFree, double[] boundaries, long[][] segments) {
+            this.valueFree = valueFree;
+            this.valueTable = valueTable;
+            this.prefixFree = prefixFree;
+            this.prefixTable = prefixTable;
+            this.prefixLengths = prefixLengths;
+            this.rangeFree = rangeFree;
+            this.boundaries = boundaries;
+            this.segments = segments;
+        }
+
+        /**
+         * 将候选规则与该字段取值可满足的规则求交
+         *
+         * @param value     样本在该字段上的取值（可为null）
+         * @param scratch   [0, wordCount) 为候选规则，[wordCount, 2 × wordCount) 为临时区
+         * @param wordCount 位图字数
+         * @return 求交后是否仍有候选规则
+         */
+        private boolean retainMatching(String value, long[] scratch, int wordCount) {
+            if (valueFree != null) {
+                long[] hit = value != null ? valueTable.get(value) : null;
+                retain(scratch, wordCount, valueFree, hit);
+            }
+            if (prefixFree != null) {
+                System.arraycopy(prefixFree, 0, scratch, wordCount, wordCount);
+                if (value != null) {
+                    // 沿取值逐字符累积String.hashCode，到达每个前缀长度时按 [0, length) 区间探测
+                    int hash = 0;
+                    int scanned = 0;
+                    for (int length : prefixLengths) {
+                        if (length > value.length()) {
+                            break;
+                        }
+                        while (scanned < length) {
+                            hash = 31 * hash + value.charAt(scanned++);
+                        }
+                        long[] hit = prefixTable.get(value, length, hash);
+                        if (hit != null) {
+                            for (int w = 0; w < wordCount; w++) {
+                                scratch[wordCount + w] |= hit[w];
+                            }
+                        }
+                    }
+                }
+                for (int w = 0; w < wordCount; w++) {
+                    scratch[w] &= scratch[wordCount + w];
+                }
+            }
+            if (rangeFree != null) {
+                retain(scratch, wordCount, rangeFree, segmentOf(value));
+            }
+
+            for (int w = 0; w < wordCount; w++) {
+                if (scratch[w] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long[] segmentOf(String value) {
+            if (value == null) {
+                return null;
+            }
+            double number;
+            try {
+                number = Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (Double.isNaN(number)) {
+                return null;
+            }
+            int idx = Arrays.binarySearch(boundaries, number);
+            return segments[idx >= 0 ? idx + 1 : -idx - 1];
+        }
+
+        private static void retain(long[] scratch, int wordCount, long[] free, long[] hit) {
+            if (hit == null) {
+                for (int w = 0; w < wordCount; w++) {
+                    scratch[w] &= free[w];
+                }
+            } else {
+                for (int w = 0; w < wordCount; w++) {
+                    scratch[w] &= free[w] | hit[w];
+                }
+            }
+        }
+    }
+
+    /**
+     * 前缀 → 规则位图的开放寻址表：以取值的 [0, length) 字符区间及其String.hashCode探测，查找时无对象分配
+     */
+    private static final class PrefixTable {
+        /** 散列扰动常数（黄金分割） */
+        private static final int HASH_MIX = 0x9E3779B9;
+
+        private final String[] keys;
+        private final int[] hashes;
+        private final long[][] bitmaps;
+        private final int mask;
+
+        private PrefixTable(Map<String, long[]> entries) {
+            int capacity = Integer.highestOneBit(Math.max(2, entries.size() * 2 - 1)) << 1;
+            this.keys = new String[capacity];
+            this.hashes = new int[capacity];
+            this.bitmaps = new long[capacity][];
+            this.mask = capacity - 1;
+            entries.forEach((key, bitmap) -> {
+                int hash = spread(key.hashCode());
+                int slot = hash & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                hashes[slot] = hash;
+                bitmaps[slot] = bitmap;
+            });
+        }
+
+        /**
+         * @param value      样本取值
+         * @param length     前缀长度
+         * @param prefixHash value前length个字符的String.hashCode
+         * @return 以该前缀为条件的规则位图，未命中返回null
+         */
+        private long[] get(String value, int length, int prefixHash) {
+            int hash = spread(prefixHash);
+            int slot = hash & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (hashes[slot] == hash && key.length() == length && value.startsWith(key)) {
+                    return bitmaps[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private static int spread(int hash) {
+            int h = hash * HASH_MIX;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -32,6 +32,26 @@ public class ConditionConfig {
     @Data
     public static class Condition {
         private String field;
+        /** 匹配操作符，默认等值匹配 */
+        private Operator operator = Operator.EQ;
+        /** EQ/PREFIX 的匹配值 */
         private String value;
+        /** IN 的候选值集合 */
+        private List<String> values;
+        /** RANGE 下界（含），为空表示不限 */
+        private Double min;
+        /** RANGE 上界（不含），为空表示不限 */
+        private Double max;
+    }
+
+    public enum Operator {
+        /** 等值匹配 */
+        EQ,
+        /** 集合匹配 */
+        IN,
+        /** 前缀匹配 */
+        PREFIX,
+        /** 数值区间匹配 [min, max) */
+        RANGE
     }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.uplivo.mdsp.core.condition;
 
+import com.uplivo.mdsp.core.sample.SampleBatch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +25,24 @@ public class ConditionRouter {
 
     private final ConditionConfig conditionConfig;
 
+    /** 启动时编译的规则集（编译后不可变，路由线程无锁读取） */
+    private volatile CompiledRuleSet compiledRules;
+
+    @PostConstruct
+    public void init() {
+        compile();
+    }
+
+    /**
+     * 按配置编译路由规则（仅在启动时执行，路由规则随配置变更需重启生效）
+     */
+    private void compile() {
+        CompiledRuleSet rules = CompiledRuleSet.compile(conditionConfig);
+        compiledRules = rules;
+        log.info("Condition rules compiled - Rules: {}, Fields: {}, Default: {}",
+                rules.getRuleCount(), rules.getFieldCount(), rules.getDefaultModel());
+    }
+
     public Map<String, List<Map<String, String>>> groupFeaturesByCondition(List<Map<String, String>> features) {
         Map<String, List<Map<String, String>>> groupedFeatures = new HashMap<>();
 
@@ -29,18 +50,87 @@ public class ConditionRouter {
             return groupedFeatures;
         }
 
-        // 为每个样本选择模型
-        List<String> modelList = batchRouteByCondition(features);
+        // 按模型分组特征（基于路由下标的视图）
+        groupedFeatures.putAll(routeFeatures(features).group(features));
+        return groupedFeatures;
+    }
 
-        // 按模型分组特征
-        for (int i = 0; i < features.size(); i++) {
-            String model = modelList.get(i);
-            Map<String, String> feature = features.get(i);
+    /**
+     * 为每个样本选择模型，并记录各模型对应的样本下标
+     *
+     * @param features 原始样本列表
+     * @return 路由结果（样本位置随结果携带，合并时按下标回填）
+     */
+    public RoutingResult routeFeatures(List<Map<String, String>> features) {
+        if (features == null || features.isEmpty()) {
+            return RoutingResult.of(new String[0]);
+        }
 
-            groupedFeatures.computeIfAbsent(model, k -> new ArrayList<>()).add(feature);
+        String[] modelPerRow = new String[features.size()];
+        if (!conditionConfig.isEnabled()) {
+            Arrays.fill(modelPerRow, conditionConfig.getDefaultModel());
+        } else {
+            CompiledRuleSet rules = compiledRules;
+            long[] scratch = rules.newScratch();
+            for (int i = 0; i < modelPerRow.length; i++) {
+                modelPerRow[i] = rules.route(features.get(i), scratch);
+            }
         }
+        return RoutingResult.of(modelPerRow);
+    }
 
-        return groupedFeatures;
+    /**
+     * 为列式样本批次的每行选择模型（规则字段的列序号按批次解析一次）
+     *
+     * @param batch 样本批次
+     * @return 路由结果
+     */
+    public RoutingResult routeBatch(SampleBatch batch) {
+        return routeBatch(batch, null);
+    }
+
+    /**
+     * 为列式样本批次中未被跳过的行选择模型
+     *
+     * @param batch   样本批次
+     * @param skipped 跳过标记（下标即行号，为null时全部路由）；被跳过的行不归属任何模型，不参与预处理与推理
+     * @return 路由结果
+     */
+    public RoutingResult routeBatch(SampleBatch batch, boolean[] skipped) {
+        String[] modelPerRow = new String[batch.size()];
+        if (!conditionConfig.isEnabled()) {
+            String defaultModel = conditionConfig.getDefaultModel();
+            for (int i = 0; i < modelPerRow.length; i++) {
+                if (skipped == null || !skipped[i]) {
+                    modelPerRow[i] = defaultModel;
+                }
+            }
+        } else {
+            CompiledRuleSet rules = compiledRules;
+            int[] fieldColumns = rules.resolveFields(batch);
+            long[] scratch = rules.newScratch();
+            for (int i = 0; i < modelPerRow.length; i++) {
+                if (skipped == null || !skipped[i]) {
+                    modelPerRow[i] = rules.route(batch, i, fieldColumns, scratch);
+                }
+            }
+        }
+        return RoutingResult.of(modelPerRow);
+    }
+
+    /**
+     * 当前生效的编译规则集
+     */
+    public CompiledRuleSet getCompiledRules() {
+        return compiledRules;
+    }
+
+    public boolean isEnabled() {
+        return conditionConfig.isEnabled();
+    }
+
+    public String getDefaultModel() {
+        return conditionConfig.getDefaultModel();
     }
 
     public List<String> batchRouteByCondition(List<Map<String, String>> features) {
@@ -50,40 +140,16 @@ public class ConditionRouter {
 
         List<String> modelList = new ArrayList<>();
 
+        CompiledRuleSet rules = compiledRules;
+        long[] scratch = rules.newScratch();
         for (Map<String, String> sample : features) {
-            String selectedModel = routeSingleSample(sample);
+            String selectedModel = rules.route(sample, scratch);
             modelList.add(selectedModel);
         }
 
         return modelList;
     }
 
-    private String routeSingleSample(Map<String, String> sample) {
-        if (conditionConfig.getRules() == null) {
-            return conditionConfig.getDefaultModel();
-        }
-
-        for (ConditionConfig.ConditionRule rule : conditionConfig.getRules()) {
-            if (rule.isEnabled() && matchesConditions(rule.getConditions(), sample)) {
-                return rule.getTargetModel();
-            }
-        }
-
-        return conditionConfig.getDefaultModel();
-    }
-
-    private boolean matchesConditions(List<ConditionConfig.Condition> conditions, Map<String, String> features) {
-        if (conditions == null) return true;
-
-        for (ConditionConfig.Condition condition : conditions) {
-            String fieldValue = features.get(condition.getField());
-            if (fieldValue == null || !fieldValue.equals(condition.getValue())) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     private List<String> createDefaultList(List<Map<String, String>> features) {
         List<String> defaultList = new ArrayList<>();
         if (features != null) {
@@ -0,0 +1,138 @@
+package com.uplivo.mdsp.core.condition;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * @Description 路由结果：记录每个样本选中的模型及各模型对应的样本下标
+ * <p>样本位置随路由结果一路携带到预测与结果合并阶段，合并时按下标直接回填，
+ * 重复样本各自保留独立位置</p>
+ *
+ * @Author charles
+ * @Date 2025/10/24 10:35
+ * @Version 1.0.0
+ */
+public class RoutingResult {
+
+    /** 每个样本选中的模型（下标即样本位置，null表示该行未参与路由） */
+    private final String[] modelPerRow;
+
+    /** 模型 → 该模型负责的样本下标（升序，保持样本原始顺序） */
+    private final Map<String, int[]> indexesByModel;
+
+    public RoutingResult(String[] modelPerRow, Map<String, int[]> indexesByModel) {
+        this.modelPerRow = modelPerRow;
+        this.indexesByModel = Collections.unmodifiableMap(indexesByModel);
+    }
+
+    /**
+     * 根据逐样本的模型选择结果构建路由结果
+     *
+     * @param modelPerRow 每个样本选中的模型（null的行不归属任何模型，合并时填充缺失分数）
+     * @return 路由结果
+     */
+    public static RoutingResult of(String[] modelPerRow) {
+        Map<String, int[]> counts = new LinkedHashMap<>();
+        for (String model : modelPerRow) {
+            if (model == null) {
+                continue;
+            }
+            int[] count = counts.get(model);
+            if (count == null) {
+                counts.put(model, new int[]{1});
+            } else {
+                count[0]++;
+            }
+        }
+
+        Map<String, int[]> indexesByModel = new LinkedHashMap<>();
+        Map<String, int[]> cursors = new LinkedHashMap<>();
+        counts.forEach((model, count) -> {
+            indexesByModel.put(model, new int[count[0]]);
+            cursors.put(model, new int[1]);
+        });
+        for (int row = 0; row < modelPerRow.length; row++) {
+            String model = modelPerRow[row];
+            if (model == null) {
+                continue;
+            }
+            indexesByModel.get(model)[cursors.get(model)[0]++] = row;
+        }
+        return new RoutingResult(modelPerRow, indexesByModel);
+    }
+
+    public int getSampleCount() {
+        return modelPerRow.length;
+    }
+
+    public String getModel(int row) {
+        return modelPerRow[row];
+    }
+
+    public Map<String, int[]> getIndexesByModel() {
+        return indexesByModel;
+    }
+
+    /**
+     * 按模型分组样本（返回基于下标的只读视图，不复制样本）
+     *
+     * @param samples 原始样本列表（与路由时的顺序一致）
+     * @return 模型 → 样本视图
+     */
+    public <T> Map<String, List<T>> group(List<T> samples) {
+        Map<String, List<T>> grouped = new LinkedHashMap<>();
+        indexesByModel.forEach((model, indexes) -> grouped.put(model, new IndexedView<>(samples, indexes)));
+        return grouped;
+    }
+
+    /**
+     * 将各模型的预测结果按样本下标回填到原始顺序
+     *
+     * @param predictions  模型 → 预测结果（顺序与该模型的样本下标一致）
+     * @param missingScore 缺失结果时的填充值
+     * @return 与原始样本顺序一致的结果数组
+     */
+    public float[] scatter(Map<String, float[]> predictions, float missingScore) {
+        float[] merged = new float[modelPerRow.length];
+        Arrays.fill(merged, missingScore);
+        indexesByModel.forEach((model, indexes) -> {
+            float[] preds = predictions.get(model);
+            if (preds == null) {
+                return;
+            }
+            int count = Math.min(indexes.length, preds.length);
+            for (int i = 0; i < count; i++) {
+                merged[indexes[i]] = preds[i];
+            }
+        });
+        return merged;
+    }
+
+    /**
+     * 基于下标数组的只读列表视图
+     */
+    private static final class IndexedView<T> extends AbstractList<T> implements RandomAccess {
+        private final List<T> source;
+        private final int[] indexes;
+
+        private IndexedView(List<T> source, int[] indexes) {
+            this.source = source;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public T get(int index) {
+            return source.get(indexes[index]);
+        }
+
+        @Override
+        public int size() {
+            return indexes.length;
+        }
+    }
+}
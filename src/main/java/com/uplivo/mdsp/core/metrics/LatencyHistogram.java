@@ -0,0 +1,106 @@
+package com.uplivo.mdsp.core.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description 无锁耗时直方图：固定桶边界，按桶计数累加
+ * <p>记录路径只做一次桶定位与LongAdder累加，无锁且不分配对象；桶边界采用1-2.5-5递增序列（10µs ~ 10s），
+ * 导出时按Prometheus histogram语义累计各桶计数</p>
+ *
+ * @Author charles
+ * @Date 2025/10/25 10:25
+ * @Version 1.0.0
+ */
+public final class LatencyHistogram {
+
+    /** 桶上界（纳秒，含），最后一个桶之外为+Inf */
+    private static final long[] BOUNDS_NANOS = {
+            10_000L, 25_000L, 50_000L,
+            100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L,
+            10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L,
+            10_000_000_000L
+    };
+
+    /** 各桶计数（最后一个为+Inf桶） */
+    private final LongAdder[] buckets;
+    /** 耗时总和（纳秒） */
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        this.buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[bucketIndex(nanos)].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * 桶数量（含+Inf桶）
+     */
+    public static int bucketCount() {
+        return BOUNDS_NANOS.length + 1;
+    }
+
+    /**
+     * 桶上界（秒），+Inf桶返回Double.POSITIVE_INFINITY
+     */
+    public static double upperBoundSeconds(int bucket) {
+        return bucket < BOUNDS_NANOS.length ? BOUNDS_NANOS[bucket] / 1e9 : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * 将各桶计数写入目标数组（非累计），返回总次数
+     * <p>各桶分别读取，并发记录时快照不保证严格一致，不影响监控用途</p>
+     */
+    public long snapshot(long[] counts) {
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * 原地清零各桶计数与耗时总和（与并发记录交错时仅可能丢失交错期间的增量）
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        sumNanos.reset();
+    }
+
+    public double getSumSeconds() {
+        return sumNanos.sum() / 1e9;
+    }
+
+    private static int bucketIndex(long nanos) {
+        int low = 0;
+        int high = BOUNDS_NANOS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BOUNDS_NANOS[mid] < nanos) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
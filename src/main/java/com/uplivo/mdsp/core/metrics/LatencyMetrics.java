@@ -0,0 +1,133 @@
+package com.uplivo.mdsp.core.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Description 分阶段耗时指标注册表：按 阶段 × 模型 × 批大小分桶 维护耗时直方图
+ * <p>每个模型首次记录时一次性创建全部直方图，之后的记录只做数组下标定位，
+ * 无锁、无对象分配，可在全量流量下常开；导出为Prometheus文本格式</p>
+ *
+ * @Author charles
+ * @Date 2025/10/25 10:40
+ * @Version 1.0.0
+ */
+@Component
+public class LatencyMetrics {
+
+    /** 请求级阶段（解析、路由、合并）不区分模型时使用的模型标签 */
+    public static final String ALL_MODELS = "all";
+
+    private static final String METRIC_NAME = "mdsp_stage_latency_seconds";
+
+    private static final Stage[] STAGES = Stage.values();
+
+    /** 批大小分桶上界（含），超出最后一个上界归入+Inf */
+    private static final int[] BATCH_BOUNDS = {1, 4, 16, 64, 256, 1024};
+
+    private static final int BATCH_BUCKETS = BATCH_BOUNDS.length + 1;
+
+    /** 模型 → 直方图数组（下标 = 阶段序号 × 批大小分桶数 + 批大小分桶） */
+    private final Map<String, LatencyHistogram[]> histogramsByModel = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次阶段耗时
+     *
+     * @param stage     处理阶段
+     * @param modelId   模型ID（请求级阶段使用ALL_MODELS）
+     * @param batchSize 批大小（样本数）
+     * @param nanos     耗时（纳秒）
+     */
+    public void record(Stage stage, String modelId, int batchSize, long nanos) {
+        LatencyHistogram[] histograms = histogramsByModel.get(modelId);
+        if (histograms == null) {
+            histograms = histogramsByModel.computeIfAbsent(modelId, k -> createHistograms());
+        }
+        histograms[stage.ordinal() * BATCH_BUCKETS + batchBucket(batchSize)].record(nanos);
+    }
+
+    /**
+     * 记录从startNanos（System.nanoTime）到当前的阶段耗时
+     */
+    public void recordSince(Stage stage, String modelId, int batchSize, long startNanos) {
+        record(stage, modelId, batchSize, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 原地清零全部直方图（启动预热结束后调用，预热流量不计入线上指标）
+     * <p>保留直方图实例，记录线程持有的引用在清零后继续有效，不会因整体替换而丢失并发累加</p>
+     */
+    public void reset() {
+        for (LatencyHistogram[] histograms : histogramsByModel.values()) {
+            for (LatencyHistogram histogram : histograms) {
+                histogram.reset();
+            }
+        }
+    }
+
+    /**
+     * 按Prometheus文本格式（0.0.4）导出全部非空直方图
+     */
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder(4096);
+        out.append("# HELP ").append(METRIC_NAME).append(" Per-stage request latency in seconds\n");
+        out.append("# TYPE ").append(METRIC_NAME).append(" histogram\n");
+
+        long[] counts = new long[LatencyHistogram.bucketCount()];
+        Map<String, LatencyHistogram[]> sorted = new TreeMap<>(histogramsByModel);
+        sorted.forEach((modelId, histograms) -> {
+            for (Stage stage : STAGES) {
+                for (int batch = 0; batch < BATCH_BUCKETS; batch++) {
+                    LatencyHistogram histogram = histograms[stage.ordinal() * BATCH_BUCKETS + batch];
+                    long total = histogram.snapshot(counts);
+                    if (total == 0) {
+                        continue;
+                    }
+                    String labels = "stage=\"" + stage.getLabel() + "\",model=\"" + escape(modelId)
+                            + "\",batch=\"" + batchLabel(batch) + "\"";
+                    long cumulative = 0;
+                    for (int i = 0; i < counts.length; i++) {
+                        cumulative += counts[i];
+                        double bound = LatencyHistogram.upperBoundSeconds(i);
+                        out.append(METRIC_NAME).append("_bucket{").append(labels).append(",le=\"")
+                                .append(Double.isInfinite(bound) ? "+Inf" : Double.toString(bound))
+                                .append("\"} ").append(cumulative).append('\n');
+                    }
+                    out.append(METRIC_NAME).append("_sum{").append(labels).append("} ")
+                            .append(histogram.getSumSeconds()).append('\n');
+                    out.append(METRIC_NAME).append("_count{").append(labels).append("} ")
+                            .append(cumulative).append('\n');
+                }
+            }
+        });
+        return out.toString();
+    }
+
+    private static LatencyHistogram[] createHistograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[STAGES.length * BATCH_BUCKETS];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    private static int batchBucket(int batchSize) {
+        for (int i = 0; i < BATCH_BOUNDS.length; i++) {
+            if (batchSize <= BATCH_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BATCH_BOUNDS.length;
+    }
+
+    private static String batchLabel(int bucket) {
+        return bucket < BATCH_BOUNDS.length ? String.valueOf(BATCH_BOUNDS[bucket]) : "+Inf";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,29 @@
+package com.uplivo.mdsp.core.metrics;
+
+import lombok.Getter;
+
+/**
+ * @Description 请求处理阶段（耗时直方图的stage标签）
+ *
+ * @Author charles
+ * @Date 2025/10/25 10:20
+ * @Version 1.0.0
+ */
+@Getter
+public enum Stage {
+
+    PARSE("parse"),
+    ROUTE("route"),
+    PREPROCESS("preprocess"),
+    TENSOR_CREATE("tensor_create"),
+    ADMISSION_WAIT("admission_wait"),
+    SESSION_RUN("session_run"),
+    PARSE_OUTPUT("parse_output"),
+    MERGE("merge");
+
+    private final String label;
+
+    Stage(String label) {
+        this.label = label;
+    }
+}
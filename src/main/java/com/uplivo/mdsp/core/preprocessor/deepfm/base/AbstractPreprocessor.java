@@ -1,10 +1,12 @@
 package com.uplivo.mdsp.core.preprocessor.deepfm.base;
 
 import com.uplivo.mdsp.common.exception.ModelException;
+import com.uplivo.mdsp.core.sample.SampleBatch;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.nio.FloatBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +21,11 @@ import java.util.Map;
 @Slf4j
 public abstract class AbstractPreprocessor {
 
+    /**
+     * 编译后的特征处理计划（子类initParams中调用compileFeaturePlan构建，未构建时走逐列名处理的兼容路径）
+     */
+    private volatile FeaturePlan featurePlan;
+
     // ============================================================================
     // 抽象方法：子类必须实现的差异化逻辑（预处理核心定制点）
     // ============================================================================
@@ -95,11 +102,41 @@ public abstract class AbstractPreprocessor {
      */
     protected abstract int processCategoricalFeature(String rawVal, String categoricalCol);
 
+    /**
+     * 按特征处理计划处理单条数值特征值（批量路径使用，按列序号取参，不得产生逐值对象分配）
+     * 子类实现：规则须与processNumericFeature保持一致
+     *
+     * @param plan       编译后的特征处理计划
+     * @param numericIdx 数值特征列序号
+     * @param rawVal     原始数值特征值（可能为空字符串或"UNK"）
+     * @return 处理后的浮点型特征值
+     */
+    protected abstract float encodeNumericFeature(FeaturePlan plan, int numericIdx, String rawVal);
+
 
     // ============================================================================
     // 公共方法：父类实现的通用逻辑（子类直接复用，无需修改）
     // ============================================================================
 
+    /**
+     * 编译特征处理计划（子类在initParams完成列与参数校验后调用）
+     *
+     * @param param       预处理参数
+     * @param defaultCode 分类特征编码表未命中时的默认编码
+     */
+    protected final void compileFeaturePlan(BasePreprocessorParam param, int defaultCode) {
+        this.featurePlan = FeaturePlan.compile(param, getNumericColumns(), getCategoricalColumns(), defaultCode);
+        log.info("Feature plan compiled: numeric cols={}, categorical cols={}",
+                featurePlan.getNumericCount(), featurePlan.getCategoricalCount());
+    }
+
+    /**
+     * 获取编译后的特征处理计划（未编译时返回null）
+     */
+    public FeaturePlan getFeaturePlan() {
+        return featurePlan;
+    }
+
     /**
      * 批量预处理原始样本
      * 核心逻辑：循环调用单样本处理方法，组装批量特征数组，保证样本顺序与输入一致
@@ -124,8 +161,15 @@ public abstract class AbstractPreprocessor {
         float[][] batchFeatures = new float[sampleCount][totalFeatureDim];
 
         // 循环处理每条样本（保持输入输出顺序一致）
+        FeaturePlan plan = featurePlan;
         for (int i = 0; i < sampleCount; i++) {
-            batchFeatures[i] = singlePreprocess(rawSamples.get(i));
+            Map<String, String> rawSample = rawSamples.get(i);
+            if (plan != null) {
+                validateSample(rawSample);
+                encodeSample(plan, rawSample, FloatBuffer.wrap(batchFeatures[i]), 0);
+            } else {
+                batchFeatures[i] = singlePreprocess(rawSample);
+            }
         }
 
         log.info("Batch preprocessing finished: sample count={}, total feature dimension={}",
@@ -133,6 +177,93 @@ public abstract class AbstractPreprocessor {
         return batchFeatures;
     }
 
+    /**
+     * 批量预处理原始样本，按行优先写入目标缓冲区（张量输入直写路径）
+     * 核心逻辑：第i条样本写入 [i × 特征总维度, (i+1) × 特征总维度) 区间，不构建中间二维数组
+     *
+     * @param rawSamples 原始样本列表（每条样本为Map<String, String>）
+     * @param target     目标缓冲区（容量 ≥ 样本数 × 特征总维度，写入使用绝对下标，不改变position）
+     * @return 特征总维度
+     */
+    public int batchPreprocess(List<Map<String, String>> rawSamples, FloatBuffer target) {
+        int sampleCount = rawSamples.size();
+        FeaturePlan plan = featurePlan;
+        int totalFeatureDim = plan != null
+                ? plan.getFeatureDim()
+                : getNumericColumns().size() + getCategoricalColumns().size();
+        if (target.limit() < sampleCount * totalFeatureDim) {
+            throw new IllegalArgumentException("Target buffer too small - required: "
+                    + sampleCount * totalFeatureDim + ", limit: " + target.limit());
+        }
+
+        for (int i = 0; i < sampleCount; i++) {
+            Map<String, String> rawSample = rawSamples.get(i);
+            int offset = i * totalFeatureDim;
+            if (plan != null) {
+                validateSample(rawSample);
+                encodeSample(plan, rawSample, target, offset);
+            } else {
+                float[] processed = singlePreprocess(rawSample);
+                for (int j = 0; j < totalFeatureDim; j++) {
+                    target.put(offset + j, processed[j]);
+                }
+            }
+        }
+
+        log.debug("Batch preprocessing into buffer finished: sample count={}, total feature dimension={}",
+                sampleCount, totalFeatureDim);
+        return totalFeatureDim;
+    }
+
+    /**
+     * 批量预处理列式样本批次中的指定行，按行优先写入目标缓冲区（需已编译特征处理计划）
+     * 核心逻辑：特征列名按批次解析一次为列序号，之后按 (行, 列序号) 取值编码；批次缺少的特征列按空值处理并只告警一次
+     *
+     * @param batch  样本批次
+     * @param rows   待处理的行号（第i个行号写入 [i × 特征总维度, (i+1) × 特征总维度) 区间）
+     * @param target 目标缓冲区（容量 ≥ 行数 × 特征总维度，写入使用绝对下标，不改变position）
+     * @return 特征总维度
+     */
+    public int batchPreprocess(SampleBatch batch, int[] rows, FloatBuffer target) {
+        FeaturePlan plan = featurePlan;
+        if (plan == null) {
+            throw new IllegalStateException("Columnar preprocessing requires a compiled feature plan");
+        }
+        int totalFeatureDim = plan.getFeatureDim();
+        if (target.limit() < rows.length * totalFeatureDim) {
+            throw new IllegalArgumentException("Target buffer too small - required: "
+                    + rows.length * totalFeatureDim + ", limit: " + target.limit());
+        }
+
+        // 特征列 → 批次列序号
+        int numCount = plan.getNumericCount();
+        int catCount = plan.getCategoricalCount();
+        int[] columns = new int[totalFeatureDim];
+        for (int i = 0; i < numCount; i++) {
+            columns[i] = resolveColumn(batch, plan.getNumericColumn(i));
+        }
+        for (int i = 0; i < catCount; i++) {
+            columns[numCount + i] = resolveColumn(batch, plan.getCategoricalColumn(i));
+        }
+
+        for (int r = 0; r < rows.length; r++) {
+            int row = rows[r];
+            int offset = r * totalFeatureDim;
+            for (int i = 0; i < numCount; i++) {
+                target.put(offset + i, encodeNumericFeature(plan, i, batch.value(row, columns[i])));
+            }
+            int catOffset = offset + numCount;
+            for (int i = 0; i < catCount; i++) {
+                target.put(catOffset + i,
+                        plan.getCategoricalDictionary(i).lookup(batch.value(row, columns[numCount + i])));
+            }
+        }
+
+        log.debug("Columnar preprocessing into buffer finished: sample count={}, total feature dimension={}",
+                rows.length, totalFeatureDim);
+        return totalFeatureDim;
+    }
+
     /**
      * 单样本预处理（模板方法：定义固定流程，步骤不可修改）
      * 流程：样本验证 → 数值特征处理 → 分类特征处理 → 组装特征数组
@@ -144,6 +275,14 @@ public abstract class AbstractPreprocessor {
         // 验证样本合法性（子类实现规则）
         validateSample(rawSample);
 
+        // 已编译特征处理计划时按列序号处理
+        FeaturePlan plan = featurePlan;
+        if (plan != null) {
+            float[] encoded = new float[plan.getFeatureDim()];
+            encodeSample(plan, rawSample, FloatBuffer.wrap(encoded), 0);
+            return encoded;
+        }
+
         // 获取特征列列表，计算特征维度
         List<String> numCols = getNumericColumns();
         List<String> catCols = getCategoricalColumns();
@@ -167,4 +306,51 @@ public abstract class AbstractPreprocessor {
         return processedFeature;
     }
 
+    /**
+     * 按特征序号编码单个特征值（流式解析时逐值写入使用，规则与批量路径一致）
+     *
+     * @param plan       编译后的特征处理计划
+     * @param featureIdx 特征序号（数值特征在前，分类特征在后）
+     * @param rawVal     原始特征值（可为null）
+     * @return 编码后的特征值
+     */
+    public float encodeFeature(FeaturePlan plan, int featureIdx, String rawVal) {
+        int numCount = plan.getNumericCount();
+        if (featureIdx < numCount) {
+            return encodeNumericFeature(plan, featureIdx, rawVal);
+        }
+        return plan.getCategoricalDictionary(featureIdx - numCount).lookup(rawVal);
+    }
+
+    private int resolveColumn(SampleBatch batch, String featureColumn) {
+        int column = batch.columnIndex(featureColumn);
+        if (column < 0) {
+            log.warn("Missing feature column '{}' in sample batch, will use empty value handling", featureColumn);
+        }
+        return column;
+    }
+
+    /**
+     * 按特征处理计划编码单条样本，写入目标缓冲区（顺序：数值特征在前，分类特征在后）
+     *
+     * @param plan      编译后的特征处理计划
+     * @param rawSample 原始样本
+     * @param target    目标缓冲区
+     * @param offset    该样本在缓冲区中的起始下标
+     */
+    private void encodeSample(FeaturePlan plan, Map<String, String> rawSample, FloatBuffer target, int offset) {
+        int numCount = plan.getNumericCount();
+        for (int i = 0; i < numCount; i++) {
+            String rawVal = rawSample.getOrDefault(plan.getNumericColumn(i), "");
+            target.put(offset + i, encodeNumericFeature(plan, i, rawVal));
+        }
+
+        int catCount = plan.getCategoricalCount();
+        int catOffset = offset + numCount;
+        for (int i = 0; i < catCount; i++) {
+            String rawVal = rawSample.getOrDefault(plan.getCategoricalColumn(i), "");
+            target.put(catOffset + i, plan.getCategoricalDictionary(i).lookup(rawVal));
+        }
+    }
+
 }
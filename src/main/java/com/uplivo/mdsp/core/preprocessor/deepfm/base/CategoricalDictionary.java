@@ -0,0 +1,240 @@
+package com.uplivo.mdsp.core.preprocessor.deepfm.base;
+
+import com.uplivo.mdsp.common.constants.ModelConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @Description 分类特征编码字典：开放寻址的字符串→整型编码表
+ * <p>构建时将高频值过滤与编码映射合并为一张表：表内只保存最终编码与未命中编码不同的取值，
+ * 一次探测即可得到结果（未命中即为低频值/未知值对应的编码），返回原始int，无装箱与对象分配。
+ * 支持直接从CharSequence区间或UTF-8字节区间查找</p>
+ *
+ * @Author charles
+ * @Date 2025/10/22 16:30
+ * @Version 1.0.0
+ */
+public final class CategoricalDictionary {
+
+    /** 散列扰动常数（黄金分割） */
+    private static final int HASH_MIX = 0x9E3779B9;
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final int[] codes;
+    private final int mask;
+    private final int size;
+    /** 未命中编码（低频值、未知值） */
+    private final int missCode;
+    /** 空值/空白值编码（等价于UNK标记的编码结果） */
+    private final int blankCode;
+
+    private CategoricalDictionary(Map<String, Integer> entries, int missCode, int blankCode) {
+        int capacity = Integer.highestOneBit(Math.max(2, entries.size() * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.codes = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = entries.size();
+        this.missCode = missCode;
+        this.blankCode = blankCode;
+
+        entries.forEach((key, code) -> {
+            int hash = spread(key.hashCode());
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            hashes[slot] = hash;
+            codes[slot] = code;
+        });
+    }
+
+    /**
+     * 根据分类特征参数构建编码字典（规则与processCategoricalFeature一致）
+     * <p>高频集合非空时：高频值按编码表映射（无匹配→默认编码），其余取值→UNK编码；
+     * 高频集合为空时：按编码表映射，无匹配→默认编码</p>
+     *
+     * @param rawParam    分类特征参数（可为null）
+     * @param defaultCode 编码表未命中时的默认编码
+     * @return 编码字典
+     */
+    public static CategoricalDictionary build(BasePreprocessorParam.CategoricalParam rawParam, int defaultCode) {
+        Set<String> highFreqValues = rawParam != null && rawParam.getHighFreqValues() != null
+                ? rawParam.getHighFreqValues()
+                : Collections.emptySet();
+        Map<String, Integer> codeMap = rawParam != null && rawParam.getCodeMap() != null
+                ? rawParam.getCodeMap()
+                : Collections.emptyMap();
+
+        int unkCode = resolveCode(codeMap, ModelConstants.UNK_MARKER, defaultCode);
+        int missCode = highFreqValues.isEmpty() ? defaultCode : unkCode;
+
+        // 仅保留编码结果与未命中编码不同的取值，其余取值查表未命中即得到相同结果
+        Map<String, Integer> entries = new LinkedHashMap<>();
+        if (highFreqValues.isEmpty()) {
+            codeMap.forEach((value, code) -> {
+                if (value != null && code != null && code != missCode) {
+                    entries.put(value, code);
+                }
+            });
+        } else {
+            for (String value : highFreqValues) {
+                if (value == null) {
+                    continue;
+                }
+                int code = resolveCode(codeMap, value, defaultCode);
+                if (code != missCode) {
+                    entries.put(value, code);
+                }
+            }
+        }
+        return new CategoricalDictionary(entries, missCode, unkCode);
+    }
+
+    /**
+     * 查找编码（按String.trim语义忽略首尾空白，空值/空白值按UNK处理）
+     *
+     * @param value 原始分类特征值（可为null）
+     * @return 整型编码
+     */
+    public int lookup(CharSequence value) {
+        if (value == null) {
+            return blankCode;
+        }
+        int end = value.length();
+        int start = 0;
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return blankCode;
+        }
+        // 无需去空白的String直接复用其缓存的hashCode
+        if (start == 0 && end == value.length() && value instanceof String) {
+            return probe((String) value, spread(value.hashCode()));
+        }
+        return lookup(value, start, end);
+    }
+
+    /**
+     * 查找 [start, end) 区间的编码（区间按原样比较，不做去空白处理）
+     */
+    public int lookup(CharSequence value, int start, int end) {
+        if (start == end) {
+            return blankCode;
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        hash = spread(hash);
+        int length = end - start;
+        int slot = hash & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (hashes[slot] == hash && key.length() == length && regionEquals(key, value, start)) {
+                return codes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missCode;
+    }
+
+    /**
+     * 查找UTF-8字节区间的编码（按String.trim语义忽略首尾ASCII空白，空值/空白值按UNK处理）
+     * <p>纯ASCII输入直接在字节上计算散列并比较；含多字节字符时解码为字符串后查找</p>
+     */
+    public int lookup(byte[] bytes, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && (bytes[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return blankCode;
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            int b = bytes[i];
+            if (b < 0) {
+                return lookup(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            }
+            hash = 31 * hash + b;
+        }
+        hash = spread(hash);
+        int byteLength = end - start;
+        int slot = hash & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (hashes[slot] == hash && key.length() == byteLength && regionEquals(key, bytes, start)) {
+                return codes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missCode;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMissCode() {
+        return missCode;
+    }
+
+    public int getBlankCode() {
+        return blankCode;
+    }
+
+    private int probe(String value, int hash) {
+        int slot = hash & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (hashes[slot] == hash && key.equals(value)) {
+                return codes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missCode;
+    }
+
+    private static boolean regionEquals(String key, CharSequence value, int start) {
+        for (int i = 0, n = key.length(); i < n; i++) {
+            if (key.charAt(i) != value.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionEquals(String key, byte[] bytes, int start) {
+        for (int i = 0, n = key.length(); i < n; i++) {
+            if (key.charAt(i) != bytes[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int resolveCode(Map<String, Integer> codeMap, String value, int defaultCode) {
+        Integer code = codeMap.get(value);
+        return code != null ? code : defaultCode;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * HASH_MIX;
+        return h ^ (h >>> 16);
+    }
+}
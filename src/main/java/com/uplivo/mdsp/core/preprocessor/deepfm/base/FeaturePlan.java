@@ -0,0 +1,126 @@
+package com.uplivo.mdsp.core.preprocessor.deepfm.base;
+
+import com.uplivo.mdsp.common.constants.ModelConstants;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description 编译后的特征处理计划：initParams时由BasePreprocessorParam一次性构建
+ * <p>按列序号存放数值特征的原始类型参数（中位数/均值/安全缩放因子）以及分类特征编码字典，
+ * 批量预处理按序号直接取参，不再逐值执行列名校验、参数DTO构造与高频集合拷贝</p>
+ *
+ * @Author charles
+ * @Date 2025/10/21 10:12
+ * @Version 1.0.0
+ */
+public final class FeaturePlan {
+
+    /** 数值特征列名（下标即列序号） */
+    private final String[] numericColumns;
+    /** 分类特征列名（下标即列序号） */
+    private final String[] categoricalColumns;
+    /** 数值特征中位数 */
+    private final double[] medians;
+    /** 数值特征均值 */
+    private final double[] means;
+    /** 数值特征安全缩放因子（已按MIN_SCALE截断，避免除零） */
+    private final double[] safeScales;
+    /** 分类特征编码字典（高频过滤与编码映射合并为单次探测） */
+    private final CategoricalDictionary[] categoricalDictionaries;
+
+    private FeaturePlan(String[] numericColumns, String[] categoricalColumns,
+                        double[] medians, double[] means, double[] safeScales,
+                        CategoricalDictionary[] categoricalDictionaries) {
+        this.numericColumns = numericColumns;
+        this.categoricalColumns = categoricalColumns;
+        this.medians = medians;
+        this.means = means;
+        this.safeScales = safeScales;
+        this.categoricalDictionaries = categoricalDictionaries;
+    }
+
+    /**
+     * 编译特征处理计划
+     * <p>缺省规则与子类getNumericParam/getCategoricalParam保持一致：数值参数缺失按(0, 0, 1)处理，
+     * 分类参数缺失按空高频集合、空编码表处理</p>
+     *
+     * @param param       预处理参数（JSON反序列化结果）
+     * @param numCols     数值特征列（决定数值特征序号）
+     * @param catCols     分类特征列（决定分类特征序号）
+     * @param defaultCode 编码表未命中时的默认编码（与模型训练逻辑保持一致）
+     * @return 编译后的特征处理计划
+     */
+    public static FeaturePlan compile(BasePreprocessorParam param, List<String> numCols, List<String> catCols,
+                                      int defaultCode) {
+        Map<String, BasePreprocessorParam.NumericParam> numericParams = param.getNumericParams() != null
+                ? param.getNumericParams()
+                : Collections.emptyMap();
+        Map<String, BasePreprocessorParam.CategoricalParam> categoricalParams = param.getCategoricalParams() != null
+                ? param.getCategoricalParams()
+                : Collections.emptyMap();
+
+        int numCount = numCols.size();
+        double[] medians = new double[numCount];
+        double[] means = new double[numCount];
+        double[] safeScales = new double[numCount];
+        for (int i = 0; i < numCount; i++) {
+            BasePreprocessorParam.NumericParam rawParam = numericParams.get(numCols.get(i));
+            double median = rawParam != null && rawParam.getMedian() != null ? rawParam.getMedian() : 0.0;
+            double mean = rawParam != null && rawParam.getMean() != null ? rawParam.getMean() : 0.0;
+            double scale = rawParam != null && rawParam.getScale() != null ? rawParam.getScale() : 1.0;
+            medians[i] = median;
+            means[i] = mean;
+            safeScales[i] = Math.max(scale, ModelConstants.MIN_SCALE);
+        }
+
+        int catCount = catCols.size();
+        CategoricalDictionary[] dictionaries = new CategoricalDictionary[catCount];
+        for (int i = 0; i < catCount; i++) {
+            dictionaries[i] = CategoricalDictionary.build(categoricalParams.get(catCols.get(i)), defaultCode);
+        }
+
+        return new FeaturePlan(numCols.toArray(new String[0]), catCols.toArray(new String[0]),
+                medians, means, safeScales, dictionaries);
+    }
+
+    public int getNumericCount() {
+        return numericColumns.length;
+    }
+
+    public int getCategoricalCount() {
+        return categoricalColumns.length;
+    }
+
+    /**
+     * 特征总维度（数值特征在前，分类特征在后）
+     */
+    public int getFeatureDim() {
+        return numericColumns.length + categoricalColumns.length;
+    }
+
+    public String getNumericColumn(int idx) {
+        return numericColumns[idx];
+    }
+
+    public String getCategoricalColumn(int idx) {
+        return categoricalColumns[idx];
+    }
+
+    public double getMedian(int idx) {
+        return medians[idx];
+    }
+
+    public double getMean(int idx) {
+        return means[idx];
+    }
+
+    public double getSafeScale(int idx) {
+        return safeScales[idx];
+    }
+
+    public CategoricalDictionary getCategoricalDictionary(int idx) {
+        return categoricalDictionaries[idx];
+    }
+}
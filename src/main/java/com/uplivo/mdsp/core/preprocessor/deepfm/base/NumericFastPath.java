@@ -0,0 +1,231 @@
+package com.uplivo.mdsp.core.preprocessor.deepfm.base;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * @Description 数值特征快速路径：无分配的十进制解析与6位小数HALF_UP舍入
+ * <p>结果与 {@code Double.parseDouble(raw.trim())} 及
+ * {@code new BigDecimal(x).setScale(6, RoundingMode.HALF_UP).floatValue()} 逐位一致：
+ * 仅在能证明结果精确的情况下走原始类型计算，其余情况（超长有效位、大指数、十六进制、NaN/Infinity、
+ * 类型后缀、临界舍入点等）回退到JDK实现</p>
+ *
+ * @Author charles
+ * @Date 2025/10/21 16:40
+ * @Version 1.0.0
+ */
+public final class NumericFastPath {
+
+    /** 可精确表示的10的幂（10^0 ~ 10^22） */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22
+    };
+
+    /** 尾数精确转换为double的上限（2^53） */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /** 快速路径最多累积的有效数字位数（避免long溢出） */
+    private static final int MAX_SIGNIFICANT_DIGITS = 18;
+
+    /** 指数累积上限（超出即走回退路径，避免int溢出） */
+    private static final int MAX_EXPONENT_ACCUMULATION = 10000;
+
+    /** 舍入快速路径的绝对值上限：|x| * 10^6 < 2^50，保证乘积、取整与小数部分计算精确 */
+    private static final double ROUND_FAST_LIMIT = 1e9;
+
+    /** 舍入倍率（10^6，与保留6位小数对应） */
+    private static final double ROUND_SCALE = 1e6;
+    private static final float ROUND_SCALE_FLOAT = 1e6f;
+
+    /** BigDecimal.floatValue对|unscaledValue| < 2^22的值采用单次float除法 */
+    private static final long FLOAT_EXACT_LIMIT = 1L << 22;
+
+    /** double舍入到float时被丢弃的29位尾数，恰为中点时需回退精确路径 */
+    private static final long FLOAT_DROPPED_BITS_MASK = (1L << 29) - 1;
+    private static final long FLOAT_DROPPED_BITS_HALF = 1L << 28;
+
+    private NumericFastPath() {
+    }
+
+    /**
+     * 计算String.trim语义下的起始下标（跳过首部 ≤ ' ' 的字符）
+     */
+    public static int trimStart(CharSequence s) {
+        int start = 0;
+        int end = s.length();
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * 计算String.trim语义下的结束下标（不含，跳过尾部 ≤ ' ' 的字符）
+     */
+    public static int trimEnd(CharSequence s, int start) {
+        int end = s.length();
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * 解析 [start, end) 区间内的十进制数（调用方保证区间已去除首尾空白且非空）
+     *
+     * @param s     原始字符串
+     * @param start 起始下标（含）
+     * @param end   结束下标（不含）
+     * @return 与 Double.parseDouble 完全一致的结果
+     * @throws NumberFormatException 格式非法时抛出（与 Double.parseDouble 一致）
+     */
+    public static double parseDouble(CharSequence s, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+
+        // 整数部分
+        int intDigits = 0;
+        while (i < end && (c = s.charAt(i)) >= '0' && c <= '9') {
+            if (mantissa != 0 || c != '0') {
+                if (++significantDigits > MAX_SIGNIFICANT_DIGITS) {
+                    return fallbackParse(s, start, end);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+            }
+            intDigits++;
+            i++;
+        }
+
+        // 小数部分（要求小数点两侧都有数字，其他写法交由JDK处理）
+        if (i < end && s.charAt(i) == '.') {
+            i++;
+            int fractionDigits = 0;
+            while (i < end && (c = s.charAt(i)) >= '0' && c <= '9') {
+                if (mantissa != 0 || c != '0') {
+                    if (++significantDigits > MAX_SIGNIFICANT_DIGITS) {
+                        return fallbackParse(s, start, end);
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                exponent--;
+                fractionDigits++;
+                i++;
+            }
+            if (intDigits == 0 || fractionDigits == 0) {
+                return fallbackParse(s, start, end);
+            }
+        } else if (intDigits == 0) {
+            return fallbackParse(s, start, end);
+        }
+
+        // 指数部分
+        if (i < end && ((c = s.charAt(i)) == 'e' || c == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && ((c = s.charAt(i)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                i++;
+            }
+            int exponentDigits = 0;
+            int explicitExponent = 0;
+            while (i < end && (c = s.charAt(i)) >= '0' && c <= '9') {
+                if (explicitExponent < MAX_EXPONENT_ACCUMULATION) {
+                    explicitExponent = explicitExponent * 10 + (c - '0');
+                }
+                exponentDigits++;
+                i++;
+            }
+            if (exponentDigits == 0) {
+                return fallbackParse(s, start, end);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        // 存在未识别的字符（类型后缀、十六进制、NaN、Infinity或非法输入）
+        if (i != end) {
+            return fallbackParse(s, start, end);
+        }
+
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (mantissa > MAX_EXACT_MANTISSA) {
+            return fallbackParse(s, start, end);
+        }
+
+        // 尾数与10的幂均可精确表示时，单次乘/除法即为正确舍入结果
+        double value;
+        if (exponent == 0) {
+            value = (double) mantissa;
+        } else if (exponent > 0 && exponent < POWERS_OF_TEN.length) {
+            value = (double) mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = (double) mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return fallbackParse(s, start, end);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * 四舍五入（HALF_UP）保留6位小数并转为float
+     *
+     * @param value 待舍入的值
+     * @return 与 new BigDecimal(value).setScale(6, HALF_UP).floatValue() 完全一致的结果
+     * @throws NumberFormatException value为NaN或无穷时抛出（与 new BigDecimal(double) 一致）
+     */
+    public static float roundHalfUp6(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new NumberFormatException("Infinite or NaN");
+        }
+        double abs = Math.abs(value);
+        if (abs >= ROUND_FAST_LIMIT) {
+            return fallbackRound(value);
+        }
+
+        // scaled与精确乘积的误差不超过半个ulp，小数部分距0.5足够远时舍入方向确定
+        double scaled = abs * ROUND_SCALE;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) <= Math.ulp(scaled)) {
+            return fallbackRound(value);
+        }
+        long unscaled = (long) floor + (fraction > 0.5 ? 1 : 0);
+        if (unscaled == 0) {
+            return 0.0f;
+        }
+
+        float result;
+        if (unscaled < FLOAT_EXACT_LIMIT) {
+            result = (float) unscaled / ROUND_SCALE_FLOAT;
+        } else {
+            // 先正确舍入到double再转float，仅当double恰好落在两个float的中点时存在二次舍入误差
+            double quotient = unscaled / ROUND_SCALE;
+            long bits = Double.doubleToRawLongBits(quotient);
+            if ((bits & FLOAT_DROPPED_BITS_MASK) == FLOAT_DROPPED_BITS_HALF) {
+                return fallbackRound(value);
+            }
+            result = (float) quotient;
+        }
+        return value < 0 ? -result : result;
+    }
+
+    private static double fallbackParse(CharSequence s, int start, int end) {
+        return Double.parseDouble(s.subSequence(start, end).toString());
+    }
+
+    private static float fallbackRound(double value) {
+        return new BigDecimal(value).setScale(6, RoundingMode.HALF_UP).floatValue();
+    }
+}
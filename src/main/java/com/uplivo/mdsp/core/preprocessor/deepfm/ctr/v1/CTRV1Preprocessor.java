@@ -4,6 +4,8 @@ import com.uplivo.mdsp.common.constants.ModelConstants;
 import com.uplivo.mdsp.common.enums.ErrorCode;
 import com.uplivo.mdsp.common.exception.ModelException;
 import com.uplivo.mdsp.core.preprocessor.deepfm.base.AbstractPreprocessor;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.FeaturePlan;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.NumericFastPath;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -58,6 +60,9 @@ public class CTRV1Preprocessor extends AbstractPreprocessor {
 
         // 校验配置完整性（确保特征列和参数匹配）
         validateConfigParams();
+
+        // 编译特征处理计划（按列序号预解析参数，批量路径直接查表）
+        compileFeaturePlan(preprocessorParam, -1);
         log.info("CTR v1 preprocessor initialized successfully | Numeric cols: {}, Categorical cols: {}",
                 numCols.size(), catCols.size());
     }
@@ -208,6 +213,40 @@ public class CTRV1Preprocessor extends AbstractPreprocessor {
         }
     }
 
+    /**
+     * 按特征处理计划处理数值特征（实现父类抽象方法，规则与processNumericFeature一致）
+     * 参数按列序号从计划中读取，省去逐值的列名校验与参数DTO构造
+     * @param plan 编译后的特征处理计划
+     * @param numericIdx 数值特征列序号
+     * @param rawVal 原始数值特征值（可能为空/非法字符串）
+     * @return 处理后的浮点型特征值
+     */
+    @Override
+    protected float encodeNumericFeature(FeaturePlan plan, int numericIdx, String rawVal) {
+        try {
+            // 1. 缺失值/空值用均值填充（按trim语义定位有效区间，避免trim产生的字符串拷贝）
+            int start = rawVal == null ? 0 : NumericFastPath.trimStart(rawVal);
+            int end = rawVal == null ? 0 : NumericFastPath.trimEnd(rawVal, start);
+            double numValue = start >= end
+                    ? plan.getMean(numericIdx)
+                    : NumericFastPath.parseDouble(rawVal, start, end);
+
+            // 2. Log1p转换
+            double logValue = Math.log1p(Math.max(numValue, ModelConstants.LOG1P_LOWER_BOUND));
+
+            // 3. 标准化：(log转换后的值 - 中位数) / 安全标准差
+            double rawResult = (logValue - plan.getMedian(numericIdx)) / plan.getSafeScale(numericIdx);
+
+            // 4. 四舍五入保留6位小数（原始类型实现，结果与BigDecimal HALF_UP逐位一致）
+            return NumericFastPath.roundHalfUp6(rawResult);
+
+        } catch (NumberFormatException e) {
+            log.warn("CTR v1: Failed to parse numeric value '{}' for column '{}', use median: {}",
+                    rawVal, plan.getNumericColumn(numericIdx), plan.getMedian(numericIdx));
+            return (float) plan.getMedian(numericIdx);
+        }
+    }
+
     /**
      * 分类特征预处理（实现父类抽象方法）
      * 流程：1. 空值→UNK 2. 低频值→UNK 3. 编码映射（字符串→整数）
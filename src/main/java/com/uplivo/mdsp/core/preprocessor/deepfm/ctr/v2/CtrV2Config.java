@@ -1,14 +1,13 @@
 package com.uplivo.mdsp.core.preprocessor.deepfm.ctr.v2;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uplivo.mdsp.common.constants.ModelConstants;
+import com.uplivo.mdsp.config.model.ModelStartupLoader;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.Resource;
 
 import java.io.IOException;
-import java.io.InputStream;
 
 /**
  * @Description 预处理配置类
@@ -18,16 +17,18 @@ import java.io.InputStream;
  */
 @Configuration
 @Slf4j
+@RequiredArgsConstructor
 public class CtrV2Config {
 
-    @Value("${model.configs.ctr_v2.preprocessor-path}")
-    private Resource preprocessorResource;
+    /**
+     * 启动加载器（预处理参数JSON已在加载线程池上预先解析）
+     */
+    private final ModelStartupLoader modelStartupLoader;
 
     @Bean(name = "ctrV2Param")
     public CtrV2Param preprocessorParam() {
-        try (InputStream is = preprocessorResource.getInputStream()) {
-            ObjectMapper objectMapper = new ObjectMapper();
-            CtrV2Param param = objectMapper.readValue(is, CtrV2Param.class);
+        try {
+            CtrV2Param param = modelStartupLoader.preprocessorParam(ModelConstants.CTR_V2, CtrV2Param.class);
 
             log.info("Preprocessing configuration loaded successfully. Number of numeric features: {}, number of categorical features: {}",
                     param.getConfig().getNumCols().size(),
@@ -35,7 +36,7 @@ public class CtrV2Config {
 
             return param;
         } catch (IOException e) {
-            log.error("Failed to load preprocessing configuration. File path: {}", preprocessorResource, e);
+            log.error("Failed to load preprocessing configuration. Model: {}", ModelConstants.CTR_V2, e);
             throw new RuntimeException("Preprocessing configuration file loading failed", e);
         }
     }
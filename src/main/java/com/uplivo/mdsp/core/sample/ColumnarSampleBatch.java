@@ -0,0 +1,63 @@
+package com.uplivo.mdsp.core.sample;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Description 列式样本批次：列名表头 + 行值数组
+ * <p>行长度小于表头时，缺少的尾部列按值缺失（null）处理</p>
+ *
+ * @Author charles
+ * @Date 2025/10/25 15:40
+ * @Version 1.0.0
+ */
+public final class ColumnarSampleBatch implements SampleBatch {
+
+    private final String[] columns;
+    private final String[][] rows;
+    private final Map<String, Integer> columnIndexes;
+
+    public ColumnarSampleBatch(String[] columns, String[][] rows) {
+        if (columns == null || rows == null) {
+            throw new IllegalArgumentException("Columns and rows cannot be null");
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.columnIndexes = new HashMap<>(columns.length * 2);
+        for (int col = 0; col < columns.length; col++) {
+            if (columns[col] == null || columnIndexes.putIfAbsent(columns[col], col) != null) {
+                throw new IllegalArgumentException("Column names must be non-null and unique: " + columns[col]);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return rows.length;
+    }
+
+    @Override
+    public int columnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String columnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public int columnIndex(String columnName) {
+        Integer idx = columnIndexes.get(columnName);
+        return idx != null ? idx : -1;
+    }
+
+    @Override
+    public String value(int row, int column) {
+        if (column < 0) {
+            return "";
+        }
+        String[] values = rows[row];
+        return values != null && column < values.length ? values[column] : null;
+    }
+}
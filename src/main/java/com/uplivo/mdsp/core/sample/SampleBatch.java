@@ -0,0 +1,58 @@
+package com.uplivo.mdsp.core.sample;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Description 按列序号访问的样本批次
+ * <p>列名只在批次级解析一次为列序号，路由与预处理按 (行, 列序号) 取值，无需为每条样本构建Map</p>
+ *
+ * @Author charles
+ * @Date 2025/10/25 15:30
+ * @Version 1.0.0
+ */
+public interface SampleBatch {
+
+    /**
+     * 样本数
+     */
+    int size();
+
+    /**
+     * 列数
+     */
+    int columnCount();
+
+    /**
+     * 列名
+     */
+    String columnName(int column);
+
+    /**
+     * 列名对应的列序号
+     *
+     * @return 列序号，批次中不存在该列时返回-1
+     */
+    int columnIndex(String columnName);
+
+    /**
+     * 取值
+     *
+     * @param row    行号
+     * @param column 列序号（-1表示列不存在）
+     * @return 原始字符串值，列不存在时返回空字符串，值缺失时返回null
+     */
+    String value(int row, int column);
+
+    /**
+     * 将单行转换为Map（仅用于未编译特征处理计划的兼容路径）
+     */
+    default Map<String, String> toMap(int row) {
+        int columns = columnCount();
+        Map<String, String> sample = new HashMap<>(columns * 2);
+        for (int col = 0; col < columns; col++) {
+            sample.put(columnName(col), value(row, col));
+        }
+        return sample;
+    }
+}
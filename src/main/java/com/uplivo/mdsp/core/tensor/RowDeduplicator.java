@@ -0,0 +1,104 @@
+package com.uplivo.mdsp.core.tensor;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * @Description 批内重复行识别：找出行优先特征缓冲区中编码结果完全相同的行
+ * <p>按行64位指纹做开放寻址查找，指纹相同时再逐元素比较确认，结果与逐行推理严格一致；
+ * 高基数字段（imp_id、device_id等）编码为UNK后，原始值不同的候选行常在编码后完全相同</p>
+ *
+ * @Author charles
+ * @Date 2025/10/30 19:20
+ * @Version 1.0.0
+ */
+public final class RowDeduplicator {
+
+    private RowDeduplicator() {
+    }
+
+    /**
+     * 识别重复行
+     *
+     * @param input      行优先特征缓冲区（以绝对下标读取，不改变position/limit）
+     * @param batchSize  行数
+     * @param featureDim 特征维度
+     * @return 去重结果（各行对应的唯一行序号、各唯一行的首次出现行号）
+     */
+    public static Result deduplicate(FloatBuffer input, int batchSize, int featureDim) {
+        int[] rowToUnique = new int[batchSize];
+        int[] uniqueRows = new int[batchSize];
+        long[] uniqueHashes = new long[batchSize];
+        int uniqueCount = 0;
+
+        // 槽位存放 唯一行序号 + 1（0表示空槽），容量为不小于2倍行数的2的幂
+        int[] slots = new int[Integer.highestOneBit(Math.max(2, batchSize) * 2 - 1) << 1];
+        int mask = slots.length - 1;
+        for (int row = 0; row < batchSize; row++) {
+            long hash = RowFingerprint.high(input, row, featureDim);
+            int slot = (int) (hash ^ (hash >>> 32)) & mask;
+            while (true) {
+                int entry = slots[slot];
+                if (entry == 0) {
+                    slots[slot] = uniqueCount + 1;
+                    uniqueRows[uniqueCount] = row;
+                    uniqueHashes[uniqueCount] = hash;
+                    rowToUnique[row] = uniqueCount++;
+                    break;
+                }
+                int unique = entry - 1;
+                if (uniqueHashes[unique] == hash && rowEquals(input, uniqueRows[unique], row, featureDim)) {
+                    rowToUnique[row] = unique;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        return new Result(rowToUnique, Arrays.copyOf(uniqueRows, uniqueCount));
+    }
+
+    private static boolean rowEquals(FloatBuffer input, int a, int b, int featureDim) {
+        int offsetA = a * featureDim;
+        int offsetB = b * featureDim;
+        for (int i = 0; i < featureDim; i++) {
+            if (Float.floatToRawIntBits(input.get(offsetA + i)) != Float.floatToRawIntBits(input.get(offsetB + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 去重结果
+     */
+    public static final class Result {
+        private final int[] rowToUnique;
+        private final int[] uniqueRows;
+
+        private Result(int[] rowToUnique, int[] uniqueRows) {
+            this.rowToUnique = rowToUnique;
+            this.uniqueRows = uniqueRows;
+        }
+
+        /**
+         * 唯一行数
+         */
+        public int getUniqueCount() {
+            return uniqueRows.length;
+        }
+
+        /**
+         * 各唯一行首次出现的行号（按出现顺序）
+         */
+        public int[] getUniqueRows() {
+            return uniqueRows;
+        }
+
+        /**
+         * 第row行对应的唯一行序号
+         */
+        public int getUniqueIndex(int row) {
+            return rowToUnique[row];
+        }
+    }
+}
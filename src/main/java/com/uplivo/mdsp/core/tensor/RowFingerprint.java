@@ -0,0 +1,65 @@
+package com.uplivo.mdsp.core.tensor;
+
+import java.nio.FloatBuffer;
+
+/**
+ * @Description 编码后特征行的128位指纹：对行内每个float的原始位模式做两路独立的乘法混合
+ * <p>两路64位哈希的种子、乘数与混合方式互不相同，合计128位，按行指纹判等时碰撞概率可忽略；
+ * 以绝对下标读取缓冲区，不改变缓冲区的position/limit</p>
+ *
+ * @Author charles
+ * @Date 2025/10/30 16:10
+ * @Version 1.0.0
+ */
+public final class RowFingerprint {
+
+    private static final long SEED_HIGH = 0x9E3779B97F4A7C15L;
+    private static final long SEED_LOW = 0xC2B2AE3D27D4EB4FL;
+    private static final long MULTIPLIER_HIGH = 0xFF51AFD7ED558CCDL;
+    private static final long MULTIPLIER_LOW = 0xC4CEB9FE1A85EC53L;
+
+    private RowFingerprint() {
+    }
+
+    /**
+     * 计算第row行的高64位指纹
+     *
+     * @param buffer     行优先特征缓冲区
+     * @param row        行号
+     * @param featureDim 特征维度
+     */
+    public static long high(FloatBuffer buffer, int row, int featureDim) {
+        int offset = row * featureDim;
+        long h = SEED_HIGH ^ featureDim;
+        for (int i = 0; i < featureDim; i++) {
+            h ^= Float.floatToRawIntBits(buffer.get(offset + i)) & 0xFFFFFFFFL;
+            h = Long.rotateLeft(h * MULTIPLIER_HIGH, 31);
+        }
+        return mix(h);
+    }
+
+    /**
+     * 计算第row行的低64位指纹（与高64位相互独立）
+     */
+    public static long low(FloatBuffer buffer, int row, int featureDim) {
+        int offset = row * featureDim;
+        long h = SEED_LOW + featureDim;
+        for (int i = 0; i < featureDim; i++) {
+            h += Float.floatToRawIntBits(buffer.get(offset + i));
+            h = (h ^ (h >>> 29)) * MULTIPLIER_LOW;
+        }
+        return mix(h);
+    }
+
+    /**
+     * 64位终值混合（MurmurHash3 fmix64）
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= MULTIPLIER_HIGH;
+        h ^= h >>> 33;
+        h *= MULTIPLIER_LOW;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,125 @@
+package com.uplivo.mdsp.core.tensor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Description 输入张量缓冲区池：按容量分桶复用本地字节序的直接内存FloatBuffer
+ * <p>直接内存且本地字节序的缓冲区可被ONNX Runtime直接引用创建张量，免去堆缓冲区到本地内存的拷贝；
+ * 容量按2的幂向上取整分桶，超过最大分桶（4MB）的请求直接分配、不入池；空闲缓冲区同时受每桶个数与总字节数限制，
+ * 池化的直接内存不会随偶发的大批量请求无限累积</p>
+ *
+ * @Author charles
+ * @Date 2025/10/22 10:05
+ * @Version 1.0.0
+ */
+public final class TensorBufferPool {
+
+    /** 最小分桶容量（float个数，2^10） */
+    private static final int MIN_BUCKET_SHIFT = 10;
+    /** 最大分桶容量（float个数，2^20，即4MB） */
+    private static final int MAX_BUCKET_SHIFT = 20;
+
+    private final Queue<FloatBuffer>[] buckets;
+    private final AtomicInteger[] idleCounts;
+    /** 每个分桶最多保留的空闲缓冲区数 */
+    private final int maxIdlePerBucket;
+    /** 全部分桶合计最多保留的空闲字节数 */
+    private final long maxIdleBytes;
+    private final AtomicLong idleBytes = new AtomicLong();
+
+    /**
+     * @param maxIdlePerBucket 每个分桶最多保留的空闲缓冲区数
+     * @param maxIdleBytes     全部分桶合计最多保留的空闲字节数
+     */
+    @SuppressWarnings("unchecked")
+    public TensorBufferPool(int maxIdlePerBucket, long maxIdleBytes) {
+        int bucketCount = MAX_BUCKET_SHIFT - MIN_BUCKET_SHIFT + 1;
+        this.buckets = new Queue[bucketCount];
+        this.idleCounts = new AtomicInteger[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+            idleCounts[i] = new AtomicInteger();
+        }
+        this.maxIdlePerBucket = Math.max(1, maxIdlePerBucket);
+        this.maxIdleBytes = Math.max(0L, maxIdleBytes);
+    }
+
+    /**
+     * 租用缓冲区
+     *
+     * @param elementCount 需要的float个数（batchSize × featureDim）
+     * @return position=0、limit=elementCount 的直接内存缓冲区（使用完毕须调用release归还）
+     */
+    public FloatBuffer acquire(int elementCount) {
+        if (elementCount <= 0) {
+            throw new IllegalArgumentException("Element count must be positive: " + elementCount);
+        }
+        int bucket = bucketIndex(elementCount);
+        FloatBuffer buffer = null;
+        if (bucket >= 0) {
+            buffer = buckets[bucket].poll();
+            if (buffer != null) {
+                idleCounts[bucket].decrementAndGet();
+                idleBytes.addAndGet(-(long) buffer.capacity() * Float.BYTES);
+            } else {
+                buffer = allocateDirect(1 << (bucket + MIN_BUCKET_SHIFT));
+            }
+        } else {
+            buffer = allocateDirect(elementCount);
+        }
+        buffer.clear();
+        buffer.limit(elementCount);
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区（非池化容量、分桶已满或空闲字节数达到上限时直接丢弃，交由GC回收）
+     */
+    public void release(FloatBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        int bucket = Integer.numberOfTrailingZeros(capacity) - MIN_BUCKET_SHIFT;
+        if (bucket < 0 || bucket >= buckets.length) {
+            return;
+        }
+        long bytes = (long) capacity * Float.BYTES;
+        if (idleBytes.addAndGet(bytes) > maxIdleBytes) {
+            idleBytes.addAndGet(-bytes);
+            return;
+        }
+        if (idleCounts[bucket].incrementAndGet() > maxIdlePerBucket) {
+            idleCounts[bucket].decrementAndGet();
+            idleBytes.addAndGet(-bytes);
+            return;
+        }
+        buckets[bucket].offer(buffer);
+    }
+
+    /**
+     * 计算分桶下标（超出最大分桶返回-1）
+     */
+    private static int bucketIndex(int elementCount) {
+        int shift = 32 - Integer.numberOfLeadingZeros(elementCount - 1);
+        if (shift > MAX_BUCKET_SHIFT) {
+            return -1;
+        }
+        return Math.max(shift, MIN_BUCKET_SHIFT) - MIN_BUCKET_SHIFT;
+    }
+
+    private static FloatBuffer allocateDirect(int elementCount) {
+        return ByteBuffer.allocateDirect(elementCount * Float.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+}
@@ -0,0 +1,18 @@
+package com.uplivo.mdsp.domain.request;
+
+import lombok.Data;
+
+/**
+ * @Description 列式样本特征参数：列名只出现一次，每条样本为按列顺序排列的值数组
+ * <p>示例：{"requestId":"r1","columns":["adx","I1","C1"],"rows":[["20020","3","a9"],["20014","","b1"]]}</p>
+ *
+ * @Author charles
+ * @Date 2025/10/25 15:20
+ * @Version 1.0.0
+ */
+@Data
+public class ColumnarFeatureRequest {
+    private String requestId;
+    private String[] columns;
+    private String[][] rows;
+}
@@ -0,0 +1,149 @@
+package com.uplivo.mdsp.offline;
+
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+import com.uplivo.mdsp.core.sample.ColumnarSampleBatch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * @Description 分隔符文本块解析器：将按行对齐的文件块解析为列式样本批次
+ * <p>按绝对下标直接扫描映射缓冲区定位行与字段边界，仅将字段字节经复用的暂存数组解码为字符串，不复制整块到堆；
+ * TSV按分隔符字节直接切分（不处理引号）；CSV逐行交由opencsv解析以支持引号转义。
+ * 行字段数少于列数时缺少的列按值缺失处理，多出的字段忽略；行尾的\r一并去除。
+ * 空行保留为无效行，由调用方输出失败分数，保证分数与输入行一一对应；文件末尾的单个换行符不产生空行</p>
+ *
+ * @Author charles
+ * @Date 2025/10/27 10:40
+ * @Version 1.0.0
+ */
+final class DelimitedChunkParser {
+
+    private static final String[] EMPTY_ROW = new String[0];
+
+    private final String[] columns;
+    private final byte delimiter;
+    /** CSV格式时使用（线程不安全，每个解析器独占） */
+    private final CSVParser csvParser;
+    /** 字段解码暂存区（按需扩容，每个解析器独占） */
+    private byte[] scratch = new byte[256];
+
+    DelimitedChunkParser(String[] columns, char delimiter, boolean quoted) {
+        this.columns = columns;
+        this.delimiter = (byte) delimiter;
+        this.csvParser = quoted ? new CSVParserBuilder().withSeparator(delimiter).build() : null;
+    }
+
+    /**
+     * 解析文件块
+     *
+     * @param chunk 以换行符结尾的文件块（文件末块除外）；按绝对下标读取，不改变其position
+     * @return 列式样本批次及空行标记
+     */
+    ParsedChunk parse(ByteBuffer chunk) throws IOException {
+        ByteBuffer view = chunk.duplicate();
+        int base = chunk.position();
+        int length = chunk.limit();
+
+        List<String[]> rows = new ArrayList<>();
+        BitSet blankRows = new BitSet();
+        int lineStart = base;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && chunk.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && chunk.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd == lineStart) {
+                blankRows.set(rows.size());
+                rows.add(EMPTY_ROW);
+            } else {
+                rows.add(csvParser != null
+                        ? parseQuoted(view, lineStart, lineEnd)
+                        : split(chunk, view, lineStart, lineEnd));
+            }
+            lineStart = next;
+        }
+        return new ParsedChunk(new ColumnarSampleBatch(columns, rows.toArray(new String[0][])), blankRows);
+    }
+
+    /**
+     * 解析首行作为列名（用于带表头的文件）
+     */
+    static String[] parseHeader(byte[] line, char delimiter, boolean quoted) throws IOException {
+        int end = line.length;
+        if (end > 0 && line[end - 1] == '\r') {
+            end--;
+        }
+        String text = new String(line, 0, end, StandardCharsets.UTF_8);
+        String[] header = quoted
+                ? new CSVParserBuilder().withSeparator(delimiter).build().parseLine(text)
+                : text.split(Pattern.quote(String.valueOf(delimiter)), -1);
+        return Arrays.stream(header).map(String::trim).toArray(String[]::new);
+    }
+
+    private String[] split(ByteBuffer chunk, ByteBuffer view, int start, int end) {
+        String[] row = new String[columns.length];
+        int col = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end && col < row.length; i++) {
+            if (i == end || chunk.get(i) == delimiter) {
+                row[col++] = decode(view, fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        return row;
+    }
+
+    private String[] parseQuoted(ByteBuffer view, int start, int end) throws IOException {
+        String[] fields = csvParser.parseLine(decode(view, start, end));
+        return fields.length > columns.length ? Arrays.copyOf(fields, columns.length) : fields;
+    }
+
+    /**
+     * 将 [start, end) 区间的字节按UTF-8解码（经暂存数组，不分配中间缓冲区）
+     */
+    private String decode(ByteBuffer view, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        view.position(start);
+        view.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 一个文件块的样本批次及其中的空行标记
+     */
+    static final class ParsedChunk {
+        final ColumnarSampleBatch batch;
+        private final BitSet blankRows;
+
+        private ParsedChunk(ColumnarSampleBatch batch, BitSet blankRows) {
+            this.batch = batch;
+            this.blankRows = blankRows;
+        }
+
+        boolean hasBlankRows() {
+            return !blankRows.isEmpty();
+        }
+
+        boolean isBlank(int row) {
+            return blankRows.get(row);
+        }
+    }
+}
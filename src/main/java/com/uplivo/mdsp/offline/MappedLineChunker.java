@@ -0,0 +1,86 @@
+package com.uplivo.mdsp.offline;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * @Description 内存映射文件的按行对齐切块器
+ * <p>每次映射 [当前位置, 当前位置 + 目标块大小) 区间，并回退到区间内最后一个换行符之后作为块边界；
+ * 单行超过目标块大小时按倍增扩大映射区间。各块独立映射，文件大小不受单次映射2GB上限限制</p>
+ *
+ * @Author charles
+ * @Date 2025/10/27 10:20
+ * @Version 1.0.0
+ */
+final class MappedLineChunker {
+
+    /** 单块映射上限（MappedByteBuffer最大容量） */
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long chunkBytes;
+    private long position;
+    private long sequence;
+
+    MappedLineChunker(FileChannel channel, long startOffset, long chunkBytes) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.chunkBytes = Math.max(1, Math.min(chunkBytes, MAX_CHUNK_BYTES));
+        this.position = startOffset;
+    }
+
+    /**
+     * 映射下一块（以换行符结尾，文件末块除外）
+     *
+     * @return 下一块，文件已读完时返回null
+     */
+    Chunk next() throws IOException {
+        if (position >= fileSize) {
+            return null;
+        }
+        long length = chunkBytes;
+        while (true) {
+            long end = Math.min(fileSize, position + length);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+            int usable = mapped.limit();
+            if (end < fileSize) {
+                // 回退到最后一个换行符之后
+                while (usable > 0 && mapped.get(usable - 1) != '\n') {
+                    usable--;
+                }
+                if (usable == 0) {
+                    if (length >= MAX_CHUNK_BYTES) {
+                        throw new IOException("Line longer than " + MAX_CHUNK_BYTES + " bytes at offset " + position);
+                    }
+                    length = Math.min(MAX_CHUNK_BYTES, length * 2);
+                    continue;
+                }
+            }
+            mapped.limit(usable);
+            Chunk chunk = new Chunk(sequence++, position, mapped);
+            position += usable;
+            return chunk;
+        }
+    }
+
+    long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * 按行对齐的文件块
+     */
+    static final class Chunk {
+        final long sequence;
+        final long offset;
+        final MappedByteBuffer buffer;
+
+        private Chunk(long sequence, long offset, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.offset = offset;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.uplivo.mdsp.offline;
+
+import com.uplivo.mdsp.MdspApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * @Description 离线批量打分入口：复用线上的模型加载、预处理与推理逻辑，不启动Web容器
+ * <p>用法：java -cp app.jar -Dloader.main=com.uplivo.mdsp.offline.OfflineScoringApplication
+ * org.springframework.boot.loader.PropertiesLauncher --input=day.tsv --output=day.scores [--model=ctr_v1]
+ * [--format=tsv|csv] [--header=false] [--columns=label,I1,...] [--threads=N] [--chunk-mb=8] [--progress-seconds=10]</p>
+ * <p>输出文件每行一个分数，与输入数据行（不含表头）逐行对应；输入中的空行输出失败分数
+ * （ModelConstants.PREDICTION_FAILURE_SCORE），不会被跳过</p>
+ *
+ * @Author charles
+ * @Date 2025/10/27 10:00
+ * @Version 1.0.0
+ */
+public class OfflineScoringApplication {
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MdspApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(OfflineScoringRunner.PROFILE)
+                // 离线打分无需在线就绪预热
+                .properties("warmup.enabled=false")
+                .run(args);
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,206 @@
+package com.uplivo.mdsp.offline;
+
+import com.uplivo.mdsp.common.constants.ModelConstants;
+import com.uplivo.mdsp.core.condition.ConditionRouter;
+import com.uplivo.mdsp.core.condition.RoutingResult;
+import com.uplivo.mdsp.core.sample.ColumnarSampleBatch;
+import com.uplivo.mdsp.service.AbstractModelService;
+import com.uplivo.mdsp.service.ModelServiceFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 离线打分流水线：切块 → 并行（解析 → 预处理 → 推理） → 按序写出
+ * <p>切块线程按行对齐映射文件块并提交到工作线程池，在途块数受有界队列限制（线程数 × 2）；
+ * 工作线程解析块为列式样本批次后走与线上一致的 路由 → AbstractModelService.predict 流程；
+ * 主线程按块序号依次取结果写出（每个输入行输出一行分数，空行输出失败分数），并定期输出进度与吞吐</p>
+ *
+ * @Author charles
+ * @Date 2025/10/27 11:30
+ * @Version 1.0.0
+ */
+@Slf4j
+final class OfflineScoringPipeline {
+
+    /** 输入结束标记 */
+    private static final Future<ChunkResult> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+    private final ModelServiceFactory modelFactory;
+    private final ConditionRouter conditionRouter;
+    /** 指定模型时直接使用该模型打分，为null时按条件路由 */
+    private final AbstractModelService fixedService;
+    private final int threads;
+    private final long chunkBytes;
+    private final long progressNanos;
+    private final ThreadLocal<DelimitedChunkParser> parsers;
+
+    OfflineScoringPipeline(ModelServiceFactory modelFactory, ConditionRouter conditionRouter,
+                           AbstractModelService fixedService, String[] columns, char delimiter, boolean quoted,
+                           int threads, long chunkBytes, long progressSeconds) {
+        this.modelFactory = modelFactory;
+        this.conditionRouter = conditionRouter;
+        this.fixedService = fixedService;
+        this.threads = Math.max(1, threads);
+        this.chunkBytes = chunkBytes;
+        this.progressNanos = TimeUnit.SECONDS.toNanos(Math.max(1, progressSeconds));
+        this.parsers = ThreadLocal.withInitial(() -> new DelimitedChunkParser(columns, delimiter, quoted));
+    }
+
+    /**
+     * 执行打分
+     *
+     * @param input      输入文件
+     * @param dataOffset 数据起始偏移（跳过表头）
+     * @param output     输出文件（每行一个分数，与输入行一一对应；空行对应失败分数）
+     */
+    void run(Path input, long dataOffset, Path output) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(threads,
+                new CustomizableThreadFactory("offline-score-"));
+        BlockingQueue<Future<ChunkResult>> inFlight = new ArrayBlockingQueue<>(threads * 2);
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             Writer out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            MappedLineChunker chunker = new MappedLineChunker(channel, dataOffset, chunkBytes);
+            long totalBytes = Math.max(1, chunker.getFileSize() - dataOffset);
+
+            Thread splitter = new Thread(() -> split(chunker, workers, inFlight), "offline-split");
+            splitter.setDaemon(true);
+            splitter.start();
+
+            long startNanos = System.nanoTime();
+            long lastReport = startNanos;
+            long rows = 0;
+            long bytes = 0;
+            while (true) {
+                ChunkResult result = inFlight.take().get();
+                if (result == null) {
+                    break;
+                }
+                for (float score : result.scores) {
+                    out.write(Float.toString(score));
+                    out.write('\n');
+                }
+                rows += result.scores.length;
+                bytes += result.bytes;
+
+                long now = System.nanoTime();
+                if (now - lastReport >= progressNanos) {
+                    lastReport = now;
+                    double seconds = (now - startNanos) / 1e9;
+                    log.info("Offline scoring progress - rows: {}, progress: {}%, throughput: {} rows/s, {} MB/s",
+                            rows, String.format("%.1f", bytes * 100.0 / totalBytes),
+                            String.format("%.0f", rows / seconds),
+                            String.format("%.1f", bytes / seconds / (1 << 20)));
+                }
+            }
+
+            double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+            log.info("Offline scoring completed - rows: {}, elapsed: {}s, throughput: {} rows/s, {} MB/s",
+                    rows, String.format("%.1f", seconds), String.format("%.0f", rows / seconds),
+                    String.format("%.1f", bytes / seconds / (1 << 20)));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Offline scoring failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * 切块线程：按序提交文件块，在途块数达到上限时阻塞
+     */
+    private void split(MappedLineChunker chunker, ExecutorService workers,
+                       BlockingQueue<Future<ChunkResult>> inFlight) {
+        try {
+            MappedLineChunker.Chunk chunk;
+            while ((chunk = chunker.next()) != null) {
+                MappedLineChunker.Chunk current = chunk;
+                inFlight.put(workers.submit(() -> score(current)));
+            }
+            inFlight.put(END_OF_INPUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            CompletableFuture<ChunkResult> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            try {
+                inFlight.put(failed);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 工作线程：解析文件块并打分
+     */
+    private ChunkResult score(MappedLineChunker.Chunk chunk) throws IOException {
+        int bytes = chunk.buffer.remaining();
+        DelimitedChunkParser.ParsedChunk parsed = parsers.get().parse(chunk.buffer);
+        float[] scores = scoreBatch(chunk, parsed.batch);
+        if (parsed.hasBlankRows()) {
+            for (int i = 0; i < scores.length; i++) {
+                if (parsed.isBlank(i)) {
+                    scores[i] = ModelConstants.PREDICTION_FAILURE_SCORE;
+                }
+            }
+        }
+        return new ChunkResult(scores, bytes);
+    }
+
+    private float[] scoreBatch(MappedLineChunker.Chunk chunk, ColumnarSampleBatch batch) {
+        int sampleCount = batch.size();
+        if (sampleCount == 0) {
+            return new float[0];
+        }
+
+        if (fixedService != null) {
+            int[] rows = new int[sampleCount];
+            Arrays.setAll(rows, i -> i);
+            return fixedService.predict(batch, rows);
+        }
+
+        RoutingResult routing = conditionRouter.routeBatch(batch);
+        Map<String, float[]> predictions = new HashMap<>();
+        routing.getIndexesByModel().forEach((model, rows) -> {
+            AbstractModelService service = modelFactory.findServiceByVersion(model);
+            if (service == null) {
+                log.warn("Chunk {} - {} rows routed to unregistered model: {}", chunk.sequence, rows.length, model);
+                return;
+            }
+            predictions.put(model, service.predict(batch, rows));
+        });
+        return routing.scatter(predictions, ModelConstants.PREDICTION_FAILURE_SCORE);
+    }
+
+    /**
+     * 单个文件块的打分结果
+     */
+    private static final class ChunkResult {
+        private final float[] scores;
+        private final long bytes;
+
+        private ChunkResult(float[] scores, long bytes) {
+            this.scores = scores;
+            this.bytes = bytes;
+        }
+    }
+}
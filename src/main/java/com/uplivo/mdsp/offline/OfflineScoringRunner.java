@@ -0,0 +1,121 @@
+package com.uplivo.mdsp.offline;
+
+import com.uplivo.mdsp.core.condition.ConditionRouter;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.FeaturePlan;
+import com.uplivo.mdsp.service.AbstractModelService;
+import com.uplivo.mdsp.service.ModelServiceFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Description 离线批量打分任务：解析命令行参数并执行打分流水线（仅在offline profile下生效）
+ *
+ * @Author charles
+ * @Date 2025/10/27 11:00
+ * @Version 1.0.0
+ */
+@Slf4j
+@Component
+@Profile(OfflineScoringRunner.PROFILE)
+@RequiredArgsConstructor
+public class OfflineScoringRunner implements ApplicationRunner {
+
+    static final String PROFILE = "offline";
+
+    /** 默认列布局中的标签列（Criteo格式首列为点击标签） */
+    private static final String LABEL_COLUMN = "label";
+
+    private final ModelServiceFactory modelFactory;
+    private final ConditionRouter conditionRouter;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path input = Paths.get(requiredOption(args, "input"));
+        Path output = Paths.get(requiredOption(args, "output"));
+        String model = option(args, "model", null);
+        boolean csv = "csv".equalsIgnoreCase(option(args, "format", "tsv"));
+        String delimiterOption = option(args, "delimiter", csv ? "," : "\t");
+        char delimiter = "\\t".equals(delimiterOption) ? '\t' : delimiterOption.charAt(0);
+        boolean header = Boolean.parseBoolean(option(args, "header", "false"));
+        int threads = Integer.parseInt(option(args, "threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long chunkBytes = Long.parseLong(option(args, "chunk-mb", "8")) << 20;
+        long progressSeconds = Long.parseLong(option(args, "progress-seconds", "10"));
+
+        AbstractModelService service = null;
+        if (model != null) {
+            service = modelFactory.getServiceByVersion(model);
+        }
+
+        // 列布局：显式指定 > 文件表头 > 模型特征列（标签列 + 数值特征列 + 分类特征列）
+        String[] columns;
+        long dataOffset = 0;
+        if (header) {
+            byte[] headerLine = readFirstLine(input);
+            columns = DelimitedChunkParser.parseHeader(headerLine, delimiter, csv);
+            dataOffset = headerLine.length + 1;
+        } else if (args.containsOption("columns")) {
+            columns = option(args, "columns", "").split(",");
+        } else if (service != null && service.getFeaturePlan() != null) {
+            columns = defaultColumns(service.getFeaturePlan());
+        } else {
+            throw new IllegalArgumentException("Column layout unknown: specify --columns, --header=true or --model");
+        }
+
+        log.info("Offline scoring started - input: {}, output: {}, model: {}, columns: {}, threads: {}, chunkBytes: {}",
+                input, output, model != null ? model : "<routed>", columns.length, threads, chunkBytes);
+        OfflineScoringPipeline pipeline = new OfflineScoringPipeline(modelFactory, conditionRouter, service,
+                columns, delimiter, csv, threads, chunkBytes, progressSeconds);
+        pipeline.run(input, dataOffset, output);
+    }
+
+    private static String[] defaultColumns(FeaturePlan plan) {
+        List<String> columns = new ArrayList<>();
+        columns.add(LABEL_COLUMN);
+        for (int i = 0; i < plan.getNumericCount(); i++) {
+            columns.add(plan.getNumericColumn(i));
+        }
+        for (int i = 0; i < plan.getCategoricalCount(); i++) {
+            columns.add(plan.getCategoricalColumn(i));
+        }
+        return columns.toArray(new String[0]);
+    }
+
+    private static byte[] readFirstLine(Path input) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(input))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1 && b != '\n') {
+                line.write(b);
+            }
+            return line.toByteArray();
+        }
+    }
+
+    private static String requiredOption(ApplicationArguments args, String name) {
+        String value = option(args, name, null);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing required option --" + name);
+        }
+        return value;
+    }
+
+    private static String option(ApplicationArguments args, String name, String defaultValue) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? defaultValue : values.get(0);
+    }
+}
@@ -1,21 +1,43 @@
 package com.uplivo.mdsp.service;
 
 import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OnnxValue;
 import ai.onnxruntime.OrtEnvironment;
 import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.TensorInfo;
+import com.uplivo.mdsp.common.enums.ErrorCode;
 import com.uplivo.mdsp.common.exception.ModelException;
 import com.uplivo.mdsp.config.model.ModelConfigManager;
+import com.uplivo.mdsp.config.environment.ContainerCpuLimits;
 import com.uplivo.mdsp.config.model.ModelContext;
+import com.uplivo.mdsp.config.properties.ModelProperties;
+import com.uplivo.mdsp.config.properties.PredictProperties;
+import com.uplivo.mdsp.core.metrics.LatencyMetrics;
+import com.uplivo.mdsp.core.metrics.Stage;
 import com.uplivo.mdsp.core.preprocessor.deepfm.base.AbstractPreprocessor;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.FeaturePlan;
+import com.uplivo.mdsp.core.sample.SampleBatch;
+import com.uplivo.mdsp.core.tensor.RowDeduplicator;
+import com.uplivo.mdsp.core.tensor.TensorBufferPool;
+import com.uplivo.mdsp.service.admission.InferenceAdmission;
+import com.uplivo.mdsp.service.batch.MicroBatchScheduler;
+import com.uplivo.mdsp.service.cache.ScoreCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.nio.FloatBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @Description 模型服务抽象基类：模板方法定义推理流程
@@ -28,6 +50,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public abstract class AbstractModelService {
 
+    /**
+     * 输入张量缓冲区池最多保留的空闲直接内存（单模型64MB）
+     */
+    private static final long INPUT_POOL_MAX_IDLE_BYTES = 64L * 1024 * 1024;
+
     /**
      * ONNX运行时环境（单例，负责管理ONNX的底层资源）
      */
@@ -38,6 +65,52 @@ public abstract class AbstractModelService {
      */
     private final ModelConfigManager modelConfigManager;
 
+    /**
+     * 分阶段耗时指标（预处理、张量创建、会话推理、结果解析）
+     */
+    private final LatencyMetrics latencyMetrics;
+
+    /**
+     * 预测请求执行参数（微批结果的等待上限取请求超时）
+     */
+    private final PredictProperties predictProperties;
+
+    /**
+     * 输入张量缓冲区池（按模型隔离，预处理结果直写其中并被张量直接引用；每桶空闲数按容器可用CPU数设定）
+     */
+    private final TensorBufferPool inputBufferPool =
+            new TensorBufferPool(ContainerCpuLimits.availableCpus() * 2, INPUT_POOL_MAX_IDLE_BYTES);
+
+    /**
+     * 跨请求微批调度器（模型配置启用微批时创建，否则为null）
+     */
+    private volatile MicroBatchScheduler microBatchScheduler;
+
+    /**
+     * 推理准入控制（限制同时执行的session.run数，模型配置为不限制时为null）
+     */
+    private volatile InferenceAdmission inferenceAdmission;
+
+    /**
+     * 打分结果缓存（模型配置启用时创建，否则为null）
+     */
+    private volatile ScoreCache scoreCache;
+
+    /**
+     * 是否跳过打分结果缓存（启动预热期间跳过，合成样本不占用缓存容量与频率统计）
+     */
+    private volatile boolean scoreCacheBypassed;
+
+    /**
+     * 是否在推理前合并批内编码结果相同的行
+     */
+    private volatile boolean deduplicateRows;
+
+    /** 参与去重的输入行数 */
+    private final LongAdder dedupeInputRows = new LongAdder();
+    /** 去重后实际推理的行数 */
+    private final LongAdder dedupeUniqueRows = new LongAdder();
+
     // ============================================================================
     // 抽象方法：子类必须实现的差异化逻辑
     // ============================================================================
@@ -53,6 +126,93 @@ public abstract class AbstractModelService {
     protected abstract String getModelVersion();
 
 
+    /**
+     * 按模型配置初始化跨请求微批调度器（需预处理器已编译特征处理计划）
+     */
+    @PostConstruct
+    public void initMicroBatchScheduler() {
+        String modelVersion = getModelVersion();
+        ModelProperties.ModelConfig config = modelConfigManager.getModelConfig(modelVersion);
+        if (config == null || config.getMicroBatch() == null || !config.getMicroBatch().isEnabled()) {
+            return;
+        }
+        FeaturePlan plan = getPreprocessor().getFeaturePlan();
+        if (plan == null) {
+            log.warn("Model [{}] micro-batching skipped - preprocessor has no compiled feature plan", modelVersion);
+            return;
+        }
+        this.microBatchScheduler = new MicroBatchScheduler(modelVersion, plan.getFeatureDim(),
+                config.getMicroBatch(), inputBufferPool, this::runInference);
+    }
+
+    /**
+     * 按模型配置初始化推理准入控制（最大并发数为0时取容器可用CPU数，负数表示不限制）
+     */
+    @PostConstruct
+    public void initInferenceAdmission() {
+        String modelVersion = getModelVersion();
+        ModelProperties.ModelConfig config = modelConfigManager.getModelConfig(modelVersion);
+        if (config == null || config.getAdmission() == null || config.getAdmission().getMaxConcurrentRuns() < 0) {
+            return;
+        }
+        ModelProperties.Admission admission = config.getAdmission();
+        int maxConcurrentRuns = admission.getMaxConcurrentRuns() > 0
+                ? admission.getMaxConcurrentRuns()
+                : ContainerCpuLimits.availableCpus();
+        this.inferenceAdmission = new InferenceAdmission(modelVersion, maxConcurrentRuns, admission.getQueueTimeoutMillis());
+    }
+
+    /**
+     * 按模型配置初始化打分结果缓存
+     */
+    @PostConstruct
+    public void initScoreCache() {
+        String modelVersion = getModelVersion();
+        ModelProperties.ModelConfig config = modelConfigManager.getModelConfig(modelVersion);
+        if (config == null || config.getScoreCache() == null || !config.getScoreCache().isEnabled()) {
+            return;
+        }
+        this.scoreCache = new ScoreCache(modelVersion, config.getScoreCache());
+    }
+
+    /**
+     * 按模型配置启用批内重复行合并
+     */
+    @PostConstruct
+    public void initRowDeduplication() {
+        ModelProperties.ModelConfig config = modelConfigManager.getModelConfig(getModelVersion());
+        this.deduplicateRows = config != null && config.isDeduplicateRows();
+    }
+
+    /**
+     * 清空打分结果缓存（模型热加载后调用）
+     */
+    public void invalidateScoreCache() {
+        ScoreCache cache = scoreCache;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * 设置是否跳过打分结果缓存（启动预热前开启、结束后关闭）
+     */
+    public void setScoreCacheBypassed(boolean bypassed) {
+        this.scoreCacheBypassed = bypassed;
+    }
+
+    /**
+     * 停止微批调度器
+     */
+    @PreDestroy
+    public void shutdownMicroBatchScheduler() {
+        MicroBatchScheduler scheduler = microBatchScheduler;
+        if (scheduler != null) {
+            microBatchScheduler = null;
+            scheduler.shutdown();
+        }
+    }
+
     /**
      * 模板方法：固定预测全流程（子类不可重写）
      * <p>通用预测入口：接收原始数据，返回预测结果</p>
@@ -70,13 +230,24 @@ public abstract class AbstractModelService {
             String modelVersion = getModelVersion();
             log.info("Model [{}] start prediction - Sample count: {}", modelVersion, rawData.size());
 
-            // 特征预处理（子类实现）
-            float[][] processedFeatures = getPreprocessor().batchPreprocess(rawData);
-            log.info("Model [{}] preprocessing completed - Feature shape: {}×{}",
-                    modelVersion, processedFeatures.length, processedFeatures[0].length);
-
-            // 模型推理（子类实现核心逻辑，父类提供工具方法）
-            float[] predictionResults = doPredict(processedFeatures);
+            AbstractPreprocessor preprocessor = getPreprocessor();
+            FeaturePlan plan = preprocessor.getFeaturePlan();
+            float[] predictionResults;
+            if (plan != null) {
+                // 特征预处理直写池化的直接内存缓冲区，交由ONNX Runtime直接引用
+                predictionResults = predictWithPlan(rawData.size(), plan.getFeatureDim(),
+                        target -> preprocessor.batchPreprocess(rawData, target));
+            } else {
+                // 特征预处理（子类实现）
+                long preprocessStart = System.nanoTime();
+                float[][] processedFeatures = preprocessor.batchPreprocess(rawData);
+                latencyMetrics.recordSince(Stage.PREPROCESS, modelVersion, rawData.size(), preprocessStart);
+                log.info("Model [{}] preprocessing completed - Feature shape: {}×{}",
+                        modelVersion, processedFeatures.length, processedFeatures[0].length);
+
+                // 模型推理（子类实现核心逻辑，父类提供工具方法）
+                predictionResults = doPredict(processedFeatures);
+            }
 
             log.info("Model [{}] prediction completed", modelVersion);
             return predictionResults;
@@ -87,6 +258,183 @@ public abstract class AbstractModelService {
         }
     }
 
+    /**
+     * 列式样本批次预测：对批次中的指定行打分
+     *
+     * @param batch 样本批次
+     * @param rows  路由到当前模型的行号
+     * @return 预测结果数组（与rows顺序一致）
+     * @throws ModelException 流程异常时统一抛出
+     */
+    public final float[] predict(SampleBatch batch, int[] rows) throws ModelException {
+        try {
+            if (batch == null || rows == null || rows.length == 0) {
+                throw new IllegalArgumentException("Sample batch and rows cannot be null or empty");
+            }
+
+            AbstractPreprocessor preprocessor = getPreprocessor();
+            FeaturePlan plan = preprocessor.getFeaturePlan();
+            if (plan == null) {
+                // 未编译特征处理计划时转换为Map走兼容路径
+                List<Map<String, String>> rawData = new ArrayList<>(rows.length);
+                for (int row : rows) {
+                    rawData.add(batch.toMap(row));
+                }
+                return predict(rawData);
+            }
+
+            log.info("Model [{}] start columnar prediction - Sample count: {}", getModelVersion(), rows.length);
+            return predictWithPlan(rows.length, plan.getFeatureDim(),
+                    target -> preprocessor.batchPreprocess(batch, rows, target));
+        } catch (ModelException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Model [{}] columnar prediction process failed - Unexpected error", getModelVersion(), e);
+            throw new ModelException("Model [" + getModelVersion() + "] prediction process failed", e);
+        }
+    }
+
+    /**
+     * 对已按行优先编码完成的输入缓冲区打分（流式解析直写张量缓冲区时使用）
+     *
+     * @param inputBuffer 输入缓冲区（position=0，limit=sampleCount × featureDim）
+     * @param sampleCount 样本数
+     * @param featureDim  特征维度
+     * @return 预测结果数组
+     * @throws ModelException 流程异常时统一抛出
+     */
+    public final float[] predictEncoded(FloatBuffer inputBuffer, int sampleCount, int featureDim)
+            throws ModelException {
+        try {
+            MicroBatchScheduler scheduler = microBatchScheduler;
+            if (scheduler != null && scheduler.isBatchable(sampleCount)) {
+                // 小批量请求：拷贝为请求私有数组后交由微批调度器合并推理
+                float[] features = new float[sampleCount * featureDim];
+                inputBuffer.rewind();
+                inputBuffer.get(features);
+                inputBuffer.rewind();
+                CompletableFuture<float[]> future = scheduler.submit(features, sampleCount);
+                if (future != null) {
+                    return awaitMicroBatch(future);
+                }
+            }
+            return runInference(inputBuffer, sampleCount, featureDim);
+        } catch (ModelException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Model [{}] encoded prediction failed - Unexpected error", getModelVersion(), e);
+            throw new ModelException("Model [" + getModelVersion() + "] prediction process failed", e);
+        }
+    }
+
+    /**
+     * 当前预处理器编译的特征处理计划（未编译时返回null）
+     */
+    public FeaturePlan getFeaturePlan() {
+        return getPreprocessor().getFeaturePlan();
+    }
+
+    /**
+     * 按特征序号编码单个特征值
+     */
+    public float encodeFeature(FeaturePlan plan, int featureIdx, String rawVal) {
+        return getPreprocessor().encodeFeature(plan, featureIdx, rawVal);
+    }
+
+    /**
+     * 将原始样本按行优先编码写入目标缓冲区（热加载预热等绕过推理流程直接驱动会话时使用）
+     *
+     * @param rawData 原始样本列表
+     * @param target  目标缓冲区（容量 ≥ 样本数 × 特征维度）
+     * @return 特征维度
+     */
+    public int encodeBatch(List<Map<String, String>> rawData, FloatBuffer target) {
+        return getPreprocessor().batchPreprocess(rawData, target);
+    }
+
+    /**
+     * 从输入缓冲区池租用缓冲区（position=0，limit=elementCount，使用完毕须调用releaseInputBuffer归还）
+     */
+    public FloatBuffer acquireInputBuffer(int elementCount) {
+        return inputBufferPool.acquire(elementCount);
+    }
+
+    public void releaseInputBuffer(FloatBuffer buffer) {
+        inputBufferPool.release(buffer);
+    }
+
+    /**
+     * 已编译特征处理计划时的预测流程：小批量交由微批调度器合并推理，否则预处理直写池化缓冲区后推理
+     *
+     * @param sampleCount 样本数
+     * @param featureDim  特征维度
+     * @param encoder     将样本按行优先写入目标缓冲区的预处理逻辑
+     * @return 预测结果数组
+     */
+    private float[] predictWithPlan(int sampleCount, int featureDim, FeatureEncoder encoder) throws Exception {
+        String modelVersion = getModelVersion();
+        MicroBatchScheduler scheduler = microBatchScheduler;
+        if (scheduler != null && scheduler.isBatchable(sampleCount)) {
+            // 小批量请求：预处理结果交由微批调度器与其他请求合并推理
+            return predictMicroBatched(scheduler, encoder, sampleCount, featureDim);
+        }
+
+        FloatBuffer inputBuffer = inputBufferPool.acquire(sampleCount * featureDim);
+        try {
+            long preprocessStart = System.nanoTime();
+            encoder.encode(inputBuffer);
+            latencyMetrics.recordSince(Stage.PREPROCESS, modelVersion, sampleCount, preprocessStart);
+            log.info("Model [{}] preprocessing completed - Feature shape: {}×{}",
+                    modelVersion, sampleCount, featureDim);
+            return runInference(inputBuffer, sampleCount, featureDim);
+        } finally {
+            inputBufferPool.release(inputBuffer);
+        }
+    }
+
+    /**
+     * 微批路径：预处理到请求私有的特征数组后入队等待合并推理（队列已满时直接推理）
+     */
+    private float[] predictMicroBatched(MicroBatchScheduler scheduler, FeatureEncoder encoder,
+                                        int sampleCount, int featureDim) throws Exception {
+        float[] features = new float[sampleCount * featureDim];
+        long preprocessStart = System.nanoTime();
+        encoder.encode(FloatBuffer.wrap(features));
+        latencyMetrics.recordSince(Stage.PREPROCESS, getModelVersion(), sampleCount, preprocessStart);
+
+        CompletableFuture<float[]> future = scheduler.submit(features, sampleCount);
+        if (future == null) {
+            return runInference(FloatBuffer.wrap(features), sampleCount, featureDim);
+        }
+        return awaitMicroBatch(future);
+    }
+
+    /**
+     * 等待微批推理结果，最长等待predict.timeout-millis；超时后取消请求（尚未合并的请求不再推理）并抛出异常
+     */
+    private float[] awaitMicroBatch(CompletableFuture<float[]> future) throws Exception {
+        long timeoutMillis = predictProperties.getTimeoutMillis();
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new ModelException(ErrorCode.MODEL_INFERENCE_FAILED, String.format(
+                    "Model [%s] micro-batch result not ready within %d ms", getModelVersion(), timeoutMillis));
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /**
+     * 预处理逻辑：将样本按行优先写入目标缓冲区
+     */
+    @FunctionalInterface
+    private interface FeatureEncoder {
+        void encode(FloatBuffer target);
+    }
+
     /**
      * 模型通用推理逻辑实现
      *
@@ -99,30 +447,163 @@ public abstract class AbstractModelService {
         validateInputFeatures(features);
         int batchSize = features.length;
         int featureDim = features[0].length;
+
+        // 准备输入数据（FloatBuffer）
+        FloatBuffer inputBuffer = prepareInputBuffer(features, batchSize, featureDim);
+        return runInference(inputBuffer, batchSize, featureDim);
+    }
+
+    /**
+     * 基于行优先输入缓冲区执行推理
+     *
+     * @param inputBuffer 输入缓冲区（position=0，limit=batchSize × featureDim；直接内存缓冲区将被张量直接引用，
+     *                    推理返回前不得复用）
+     * @param batchSize   样本数
+     * @param featureDim  特征维度
+     * @return 模型预测结果数组，长度与输入样本数一致
+     * @throws ModelException
+     */
+    protected float[] runInference(FloatBuffer inputBuffer, int batchSize, int featureDim) throws ModelException {
         String modelVersion = getModelVersion(); // 获取当前版本
         log.info("Batch prediction started - Model version: {}, Sample count: {}, Feature dimension: {}",
                 modelVersion, batchSize, featureDim);
 
-        // 获取模型上下文（父类已处理空指针，直接使用）
-        ModelContext modelContext = getModelContext();
+        // 获取模型上下文并持有引用（热加载替换期间旧会话在本次推理结束后才关闭）
+        ModelContext modelContext = modelConfigManager.acquireModelContext(modelVersion);
+        try {
+            ScoreCache cache = scoreCacheBypassed ? null : scoreCache;
+            if (cache != null) {
+                return runCachedInference(cache, modelContext, inputBuffer, batchSize, featureDim);
+            }
+            return runDeduplicatedInference(modelContext, inputBuffer, batchSize, featureDim);
+        } finally {
+            modelContext.release();
+        }
+    }
+
+    /**
+     * 带结果缓存的推理：按编码后特征行查询缓存，仅将未命中行聚合为一批推理，再回填缓存
+     */
+    private float[] runCachedInference(ScoreCache cache, ModelContext modelContext, FloatBuffer inputBuffer,
+                                       int batchSize, int featureDim) throws ModelException {
+        float[] predictions = new float[batchSize];
+        ScoreCache.Lookup lookup = cache.lookup(modelContext.getLoadTimestamp(), inputBuffer, batchSize, featureDim,
+                predictions);
+        int missCount = lookup.getMissCount();
+        if (missCount == 0) {
+            log.info("Model [{}] all {} samples served from score cache", getModelVersion(), batchSize);
+            return predictions;
+        }
+        if (missCount == batchSize) {
+            float[] scores = runDeduplicatedInference(modelContext, inputBuffer, batchSize, featureDim);
+            cache.put(lookup, scores);
+            return scores;
+        }
+
+        // 未命中行按原顺序拷贝到池化缓冲区后推理
+        int[] missRows = lookup.getMissRows();
+        FloatBuffer missBuffer = gatherRows(inputBuffer, missRows, featureDim);
+        try {
+            float[] missScores = runDeduplicatedInference(modelContext, missBuffer, missCount, featureDim);
+            for (int i = 0; i < missCount; i++) {
+                predictions[missRows[i]] = missScores[i];
+            }
+            cache.put(lookup, missScores);
+            return predictions;
+        } finally {
+            inputBufferPool.release(missBuffer);
+        }
+    }
+
+    /**
+     * 批内去重推理：编码结果相同的行只推理一次，再按行号展开结果
+     */
+    private float[] runDeduplicatedInference(ModelContext modelContext, FloatBuffer inputBuffer,
+                                             int batchSize, int featureDim) throws ModelException {
+        if (!deduplicateRows || batchSize < 2) {
+            return runInference(modelContext, inputBuffer, batchSize, featureDim);
+        }
+        RowDeduplicator.Result unique = RowDeduplicator.deduplicate(inputBuffer, batchSize, featureDim);
+        int uniqueCount = unique.getUniqueCount();
+        dedupeInputRows.add(batchSize);
+        dedupeUniqueRows.add(uniqueCount);
+        if (uniqueCount == batchSize) {
+            return runInference(modelContext, inputBuffer, batchSize, featureDim);
+        }
+
+        log.info("Model [{}] duplicate rows merged - Sample count: {}, unique: {}",
+                getModelVersion(), batchSize, uniqueCount);
+        FloatBuffer uniqueBuffer = gatherRows(inputBuffer, unique.getUniqueRows(), featureDim);
+        try {
+            float[] uniqueScores = runInference(modelContext, uniqueBuffer, uniqueCount, featureDim);
+            float[] predictions = new float[batchSize];
+            for (int row = 0; row < batchSize; row++) {
+                predictions[row] = uniqueScores[unique.getUniqueIndex(row)];
+            }
+            return predictions;
+        } finally {
+            inputBufferPool.release(uniqueBuffer);
+        }
+    }
+
+    /**
+     * 按行号将指定行依次拷贝到池化缓冲区（使用完毕须归还缓冲区池）
+     */
+    private FloatBuffer gatherRows(FloatBuffer inputBuffer, int[] rows, int featureDim) {
+        FloatBuffer target = inputBufferPool.acquire(rows.length * featureDim);
+        for (int row : rows) {
+            int offset = row * featureDim;
+            FloatBuffer source = inputBuffer.duplicate();
+            source.limit(offset + featureDim).position(offset);
+            target.put(source);
+        }
+        target.rewind();
+        return target;
+    }
+
+    /**
+     * 在已持有引用的模型上下文上执行推理
+     */
+    private float[] runInference(ModelContext modelContext, FloatBuffer inputBuffer, int batchSize, int featureDim)
+            throws ModelException {
+        String modelVersion = getModelVersion();
         OrtSession targetSession = modelContext.getSession();
         String inputNodeName = modelContext.getInputNodeName();
         String outputNodeName = modelContext.getOutputNodeName();
         log.info("Using model resources - Session: {}, Input node: {}, Output node: {}",
                 targetSession.hashCode(), inputNodeName, outputNodeName);
 
-        // 准备输入数据（FloatBuffer）
-        FloatBuffer inputBuffer = prepareInputBuffer(features, batchSize, featureDim);
-
         // 创建输入张量并执行推理（try-with-resources确保资源释放）
+        long tensorStart = System.nanoTime();
         try (OnnxTensor inputTensor = createOnnxTensor(inputBuffer, new long[]{batchSize, featureDim})) {
+            latencyMetrics.recordSince(Stage.TENSOR_CREATE, modelVersion, batchSize, tensorStart);
+            // 输出节点元数据（按会话解析一次后缓存）
+            TensorInfo outputInfo = modelContext.getOutputTensorInfo();
             // 构建输入映射（仅包含目标输入节点）
             Map<String, OnnxTensor> inputs = Collections.singletonMap(inputNodeName, inputTensor);
 
-            // 执行推理（仅获取目标输出节点，减少内存占用）
-            try (OrtSession.Result inferenceResult = targetSession.run(inputs, Collections.singleton(outputNodeName))) {
-                // 解析结果（复用父类工具方法，自动适配输出格式）
-                return parseInferenceResult(inferenceResult, batchSize);
+            // 申请推理许可（并发推理数达到上限时公平排队，排队时间单独记录）
+            InferenceAdmission admission = inferenceAdmission;
+            if (admission != null) {
+                long waitNanos = admission.acquire();
+                latencyMetrics.record(Stage.ADMISSION_WAIT, modelVersion, batchSize, waitNanos);
+            }
+            try {
+                // 执行推理（仅获取目标输出节点，减少内存占用）
+                long runStart = System.nanoTime();
+                try (OrtSession.Result inferenceResult = targetSession.run(inputs, Collections.singleton(outputNodeName))) {
+                    latencyMetrics.recordSince(Stage.SESSION_RUN, modelVersion, batchSize, runStart);
+                    // 解析结果（复用父类工具方法，自动适配输出格式）
+                    long parseStart = System.nanoTime();
+                    float[] predictions = new float[batchSize];
+                    parseInferenceResult(inferenceResult, outputInfo, predictions);
+                    latencyMetrics.recordSince(Stage.PARSE_OUTPUT, modelVersion, batchSize, parseStart);
+                    return predictions;
+                }
+            } finally {
+                if (admission != null) {
+                    admission.release();
+                }
             }
         } catch (OrtException e) {
             log.error("ONNX inference failed - Model version: {}", modelVersion, e);
@@ -171,7 +652,7 @@ public abstract class AbstractModelService {
             return OnnxTensor.createTensor(ortEnvironment, inputBuffer, inputShape);
         } catch (OrtException e) {
             log.error("Fallback to float[] mode for tensor creation: {}", e.getMessage());
-            float[] inputArray = new float[inputBuffer.capacity()];
+            float[] inputArray = new float[inputBuffer.limit()];
             inputBuffer.rewind();
             inputBuffer.get(inputArray);
             return OnnxTensor.createTensor(ortEnvironment, FloatBuffer.wrap(inputArray), inputShape);
@@ -192,90 +673,59 @@ public abstract class AbstractModelService {
     }
 
     /**
-     * 解析推理结果张量，提取预测值数组（兼容一维/二维输出格式）
+     * 解析推理结果张量，将预测值直接写入调用方提供的结果数组（兼容一维/二维输出格式）
      *
      * <p>支持两种常见模型输出格式：
-     * <li>二维数组 [batchSize, 1]：多数分类/回归模型的标准输出</li>
+     * <li>二维数组 [batchSize, k]：多数分类/回归模型的标准输出（取第一列）</li>
      * <li>一维数组 [batchSize]：部分轻量化模型的简化输出</li>
+     * <p>通过getFloatBuffer()整体读取（ORT 1.16中该方法返回输出张量的一份堆上副本，每次推理一次批量拷贝），
+     * 不再经由getValue()为每个样本分配float[1]；
+     * 输出元素类型与维数在会话首次推理时校验并缓存于模型上下文，每次调用仅按张量实际形状校验样本数</p>
      *
-     * @param inferenceResult   ONNX推理结果对象（包含输出张量）
-     * @param expectedBatchSize 预期样本数量（需与输入特征矩阵的样本数一致）
-     * @return 解析后的预测值数组（长度 = expectedBatchSize）
+     * @param inferenceResult ONNX推理结果对象（包含输出张量）
+     * @param outputInfo      输出节点元数据（按会话缓存）
+     * @param predictions     结果数组（长度 = 预期样本数，需与输入特征矩阵的样本数一致）
      * @throws OrtException   张量值获取失败（如底层ONNX Runtime错误）
      * @throws ModelException 结果格式不支持或数量不匹配时抛出
      */
-    protected float[] parseInferenceResult(OrtSession.Result inferenceResult, int expectedBatchSize)
+    protected void parseInferenceResult(OrtSession.Result inferenceResult, TensorInfo outputInfo, float[] predictions)
             throws OrtException, ModelException {
-        // 获取输出张量（默认取第一个输出节点，符合多数模型设计）
-        OnnxTensor outputTensor = (OnnxTensor) inferenceResult.get(0);
         String modelVersion = getModelVersion();
-        Object outputValue = outputTensor.getValue(); // 统一获取输出值，避免重复调用
-
-        // 根据输出值类型分发处理（主动判断类型，替代原异常捕获逻辑，更高效）
-        if (outputValue instanceof float[][]) {
-            return parse2DOutput((float[][]) outputValue, expectedBatchSize, modelVersion);
-        } else if (outputValue instanceof float[]) {
-            return parse1DOutput((float[]) outputValue, expectedBatchSize, modelVersion);
-        } else {
-            // 不支持的输出类型（提前报错，避免后续逻辑异常）
+        // 获取输出张量（仅请求了目标输出节点，取第一个即可）
+        OnnxValue outputValue = inferenceResult.get(0);
+        if (!(outputValue instanceof OnnxTensor)) {
             throw new ModelException(String.format(
-                    "Unsupported output type for version %s - Expected float[][] or float[], but got %s",
-                    modelVersion,
-                    outputValue.getClass().getSimpleName()
-            ));
+                    "Unsupported output value for version %s - Expected tensor, but got %s",
+                    modelVersion, outputValue.getInfo()));
         }
-    }
+        OnnxTensor outputTensor = (OnnxTensor) outputValue;
 
-    /**
-     * 解析二维输出张量 [batchSize, 1]
-     *
-     * @param output2D          二维输出数组
-     * @param expectedBatchSize 预期样本数
-     * @param modelVersion      模型版本（用于异常信息）
-     * @return 提取的预测值数组
-     * @throws ModelException 数量不匹配或单样本结果为空时抛出
-     */
-    private float[] parse2DOutput(float[][] output2D, int expectedBatchSize, String modelVersion) throws ModelException {
-        // 校验样本数量匹配
-        if (output2D.length != expectedBatchSize) {
-            throw new ModelException(buildMismatchMsg(expectedBatchSize, output2D.length, modelVersion));
-        }
-
-        // 提取每个样本的预测值（取第一列，兼容[batch,1]格式）
-        float[] predictions = new float[expectedBatchSize];
-        for (int i = 0; i < expectedBatchSize; i++) {
-            if (output2D[i] == null || output2D[i].length == 0) {
-                throw new ModelException(String.format(
-                        "Empty prediction for sample %d (Model version: %s)",
-                        i,
-                        modelVersion
-                ));
-            }
-            predictions[i] = output2D[i][0];
+        // 按本次输出的实际形状校验（动态batch维在元数据中为-1）
+        long[] shape = outputTensor.getInfo().getShape();
+        int expectedBatchSize = predictions.length;
+        if (shape[0] != expectedBatchSize) {
+            throw new ModelException(buildMismatchMsg(expectedBatchSize, shape[0], modelVersion));
+        }
+        int columns = outputInfo.getShape().length == 2 ? (int) shape[1] : 1;
+        if (columns <= 0) {
+            throw new ModelException(String.format("Empty prediction output (Model version: %s)", modelVersion));
         }
-        return predictions;
-    }
 
-    /**
-     * 解析一维输出张量 [batchSize]
-     *
-     * @param output1D          一维输出数组
-     * @param expectedBatchSize 预期样本数
-     * @param modelVersion      模型版本（用于异常信息）
-     * @return 直接返回一维数组（已校验长度）
-     * @throws ModelException 数量不匹配时抛出
-     */
-    private float[] parse1DOutput(float[] output1D, int expectedBatchSize, String modelVersion) throws ModelException {
-        if (output1D.length != expectedBatchSize) {
-            throw new ModelException(buildMismatchMsg(expectedBatchSize, output1D.length, modelVersion));
+        FloatBuffer output = outputTensor.getFloatBuffer();
+        if (columns == 1) {
+            output.get(predictions, 0, expectedBatchSize);
+        } else {
+            // [batchSize, k] 取每行第一列
+            for (int i = 0; i < expectedBatchSize; i++) {
+                predictions[i] = output.get(i * columns);
+            }
         }
-        return output1D;
     }
 
     /**
      * 构建数量不匹配的异常消息（复用逻辑，避免重复编码）
      */
-    private String buildMismatchMsg(int expected, int actual, String version) {
+    private String buildMismatchMsg(int expected, long actual, String version) {
         return String.format(
                 "Prediction count mismatch - Input: %d, Output: %d (Model version: %s)",
                 expected,
@@ -284,6 +734,35 @@ public abstract class AbstractModelService {
         );
     }
 
+    /**
+     * 批内去重统计：去重比例 = 1 - 实际推理行数 / 输入行数
+     */
+    /**
+     * 清零去重、推理准入与微批调度统计（启动预热结束后调用，预热流量不计入线上统计）
+     */
+    public void resetStats() {
+        dedupeInputRows.reset();
+        dedupeUniqueRows.reset();
+        MicroBatchScheduler scheduler = microBatchScheduler;
+        if (scheduler != null) {
+            scheduler.resetStats();
+        }
+        InferenceAdmission admission = inferenceAdmission;
+        if (admission != null) {
+            admission.resetStats();
+        }
+    }
+
+    private Map<String, Object> getDedupeStats() {
+        long inputRows = dedupeInputRows.sum();
+        long uniqueRows = dedupeUniqueRows.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("inputRows", inputRows);
+        stats.put("inferredRows", uniqueRows);
+        stats.put("dedupeRatio", inputRows == 0 ? 0.0 : 1.0 - (double) uniqueRows / inputRows);
+        return stats;
+    }
+
     /**
      * 获取模型信息
      */
@@ -299,6 +778,22 @@ public abstract class AbstractModelService {
             info.put("outputNode", context.getOutputNodeName());
             info.put("enabled", context.isEnabled());
             info.put("valid", context.isValid());
+            info.put("loadTimestamp", context.getLoadTimestamp());
+            MicroBatchScheduler scheduler = microBatchScheduler;
+            if (scheduler != null) {
+                info.put("microBatch", scheduler.getStats());
+            }
+            InferenceAdmission admission = inferenceAdmission;
+            if (admission != null) {
+                info.put("admission", admission.getStats());
+            }
+            ScoreCache cache = scoreCache;
+            if (cache != null) {
+                info.put("scoreCache", cache.getStats());
+            }
+            if (deduplicateRows) {
+                info.put("dedupe", getDedupeStats());
+            }
         } catch (Exception e) {
             info.put("error", e.getMessage());
         }
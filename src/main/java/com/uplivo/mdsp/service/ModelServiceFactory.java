@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,4 +39,18 @@ public class ModelServiceFactory {
         }
         return service;
     }
+
+    /**
+     * 按版本号查找模型服务（不存在时返回null）
+     */
+    public AbstractModelService findServiceByVersion(String version) {
+        return serviceMap.get(version);
+    }
+
+    /**
+     * 全部已注册的模型服务（版本号 → 服务）
+     */
+    public Map<String, AbstractModelService> getServices() {
+        return Collections.unmodifiableMap(serviceMap);
+    }
 }
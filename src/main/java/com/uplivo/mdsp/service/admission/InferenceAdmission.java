@@ -0,0 +1,107 @@
+package com.uplivo.mdsp.service.admission;
+
+import com.uplivo.mdsp.common.enums.ErrorCode;
+import com.uplivo.mdsp.common.exception.ModelException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description 单模型推理准入控制：限制同时执行session.run的请求数，超出部分按到达顺序公平排队
+ * <p>并发推理数超过CPU核数后各请求互相抢占线程，延迟会陡增；准入后排队等待的时间计入请求延迟，
+ * 但已准入请求的推理耗时保持稳定。排队超过等待上限的请求直接失败，避免突发流量下无界堆积</p>
+ *
+ * @Author charles
+ * @Date 2025/10/30 14:20
+ * @Version 1.0.0
+ */
+@Slf4j
+public final class InferenceAdmission {
+
+    private final String modelId;
+    private final int maxConcurrentRuns;
+    private final long queueTimeoutNanos;
+    /** 公平信号量：许可释放后按等待顺序分配 */
+    private final Semaphore permits;
+
+    /** 无需等待直接准入的次数 */
+    private final LongAdder immediateAdmits = new LongAdder();
+    /** 排队后准入的次数 */
+    private final LongAdder queuedAdmits = new LongAdder();
+    /** 排队超时被拒绝的次数 */
+    private final LongAdder rejected = new LongAdder();
+    /** 累计排队时间（纳秒） */
+    private final LongAdder queuedNanos = new LongAdder();
+
+    public InferenceAdmission(String modelId, int maxConcurrentRuns, long queueTimeoutMillis) {
+        this.modelId = modelId;
+        this.maxConcurrentRuns = Math.max(1, maxConcurrentRuns);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, queueTimeoutMillis));
+        this.permits = new Semaphore(this.maxConcurrentRuns, true);
+        log.info("Inference admission initialized - Model: {}, maxConcurrentRuns: {}, queueTimeoutMillis: {}",
+                modelId, this.maxConcurrentRuns, queueTimeoutMillis);
+    }
+
+    /**
+     * 申请推理许可（使用完毕须调用release）
+     *
+     * @return 排队等待时间（纳秒，直接准入时为0）
+     * @throws ModelException 排队超时或等待被中断时抛出
+     */
+    public long acquire() {
+        try {
+            // 带超时的tryAcquire遵循公平策略（无参tryAcquire会插队）
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                immediateAdmits.increment();
+                return 0L;
+            }
+            long start = System.nanoTime();
+            if (!permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new ModelException(ErrorCode.MODEL_INFERENCE_FAILED, String.format(
+                        "Inference admission timeout for model %s (max concurrent runs: %d)", modelId, maxConcurrentRuns));
+            }
+            long waited = System.nanoTime() - start;
+            queuedAdmits.increment();
+            queuedNanos.add(waited);
+            return waited;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModelException(ErrorCode.MODEL_INFERENCE_FAILED, "Interrupted while waiting for inference admission");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * 清零准入统计（启动预热结束后调用）
+     */
+    public void resetStats() {
+        immediateAdmits.reset();
+        queuedAdmits.reset();
+        rejected.reset();
+        queuedNanos.reset();
+    }
+
+    /**
+     * 准入统计信息（用于模型信息接口展示）
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long queued = queuedAdmits.sum();
+        stats.put("maxConcurrentRuns", maxConcurrentRuns);
+        stats.put("running", maxConcurrentRuns - permits.availablePermits());
+        stats.put("waiting", permits.getQueueLength());
+        stats.put("immediateAdmits", immediateAdmits.sum());
+        stats.put("queuedAdmits", queued);
+        stats.put("rejected", rejected.sum());
+        stats.put("avgQueueMicros", queued == 0 ? 0.0 : TimeUnit.NANOSECONDS.toMicros(queuedNanos.sum()) / (double) queued);
+        return stats;
+    }
+}
@@ -0,0 +1,279 @@
+package com.uplivo.mdsp.service.batch;
+
+import com.uplivo.mdsp.config.properties.ModelProperties;
+import com.uplivo.mdsp.core.tensor.TensorBufferPool;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description 单模型跨请求动态微批调度器
+ * <p>并发请求的预处理结果入队，由调度线程合并：累计样本数达到最大批大小或首个请求等待超过最长等待时间即触发一次推理，
+ * 推理结果按请求切分后回填各自的Future。调用方等待超时后取消Future，尚未合并的请求不再推理；
+ * 调度线程以任何方式退出时，已入队的请求均以异常结束，不会遗留永不完成的Future</p>
+ *
+ * @Author charles
+ * @Date 2025/10/23 11:20
+ * @Version 1.0.0
+ */
+@Slf4j
+public class MicroBatchScheduler {
+
+    /**
+     * 合并后批次的推理函数
+     */
+    @FunctionalInterface
+    public interface BatchInference {
+        /**
+         * @param inputBuffer 行优先输入缓冲区（position=0，limit=batchSize × featureDim）
+         * @param batchSize   样本数
+         * @param featureDim  特征维度
+         * @return 预测结果数组（长度 = batchSize）
+         */
+        float[] run(FloatBuffer inputBuffer, int batchSize, int featureDim);
+    }
+
+    /** 空闲时调度线程的轮询间隔（毫秒），用于响应停止信号 */
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final String modelId;
+    private final int featureDim;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingRequest> queue;
+    private final TensorBufferPool bufferPool;
+    private final BatchInference inference;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    /** 已执行的合并推理次数 */
+    private final LongAdder flushCount = new LongAdder();
+    /** 合并推理覆盖的样本总数 */
+    private final LongAdder flushedSamples = new LongAdder();
+    /** 合并推理覆盖的请求总数 */
+    private final LongAdder flushedRequests = new LongAdder();
+    /** 因队列已满而直接推理的请求数 */
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    public MicroBatchScheduler(String modelId, int featureDim, ModelProperties.MicroBatch config,
+                               TensorBufferPool bufferPool, BatchInference inference) {
+        this.modelId = modelId;
+        this.featureDim = featureDim;
+        this.maxBatchSize = Math.max(1, config.getMaxBatchSize());
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, config.getMaxWaitMicros()));
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.bufferPool = bufferPool;
+        this.inference = inference;
+        this.dispatcher = new Thread(this::dispatchLoop, "micro-batch-" + modelId);
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+        log.info("Micro-batch scheduler started - Model: {}, maxBatchSize: {}, maxWaitMicros: {}, queueCapacity: {}",
+                modelId, maxBatchSize, config.getMaxWaitMicros(), config.getQueueCapacity());
+    }
+
+    /**
+     * 判断请求是否参与微批（样本数小于最大批大小且调度器运行中）
+     */
+    public boolean isBatchable(int sampleCount) {
+        return running && sampleCount < maxBatchSize;
+    }
+
+    /**
+     * 提交预处理后的样本
+     *
+     * @param features    行优先特征（长度 = sampleCount × featureDim）
+     * @param sampleCount 样本数
+     * @return 预测结果Future；样本数不小于最大批大小、队列已满或调度器已停止时返回null，由调用方直接推理
+     */
+    public CompletableFuture<float[]> submit(float[] features, int sampleCount) {
+        if (!isBatchable(sampleCount)) {
+            return null;
+        }
+        PendingRequest request = new PendingRequest(features, sampleCount);
+        if (!queue.offer(request)) {
+            rejectedRequests.increment();
+            return null;
+        }
+        // 入队与停止并发：停止后仍能从队列取回的请求交还调用方直接推理，已被停止流程取走的请求由其以异常结束
+        if (!running && queue.remove(request)) {
+            return null;
+        }
+        return request.future;
+    }
+
+    /**
+     * 停止调度线程，队列中剩余请求以异常结束
+     */
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        failQueued();
+    }
+
+    /**
+     * 批次填充率 = 合并推理样本总数 / (推理次数 × 最大批大小)
+     */
+    public double getFillRatio() {
+        long flushes = flushCount.sum();
+        return flushes == 0 ? 0.0 : (double) flushedSamples.sum() / ((double) flushes * maxBatchSize);
+    }
+
+    /**
+     * 清零调度统计（启动预热结束后调用，预热批次不计入填充率）
+     */
+    public void resetStats() {
+        flushCount.reset();
+        flushedSamples.reset();
+        flushedRequests.reset();
+        rejectedRequests.reset();
+    }
+
+    /**
+     * 调度统计信息（用于模型信息接口展示）
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long flushes = flushCount.sum();
+        stats.put("maxBatchSize", maxBatchSize);
+        stats.put("maxWaitMicros", TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+        stats.put("flushCount", flushes);
+        stats.put("flushedSamples", flushedSamples.sum());
+        stats.put("flushedRequests", flushedRequests.sum());
+        stats.put("rejectedRequests", rejectedRequests.sum());
+        stats.put("queueSize", queue.size());
+        stats.put("avgBatchSize", flushes == 0 ? 0.0 : (double) flushedSamples.sum() / flushes);
+        stats.put("fillRatio", getFillRatio());
+        return stats;
+    }
+
+    private void dispatchLoop() {
+        List<PendingRequest> batch = new ArrayList<>();
+        PendingRequest carry = null;
+        try {
+            while (running) {
+                try {
+                    PendingRequest first = carry != null ? carry : queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    carry = null;
+                    // 调用方已等待超时并取消的请求不再推理
+                    if (first == null || first.future.isDone()) {
+                        continue;
+                    }
+
+                    // 收集请求：达到最大批大小或等待超时即停止
+                    batch.add(first);
+                    int batchSamples = first.sampleCount;
+                    long deadline = System.nanoTime() + maxWaitNanos;
+                    while (batchSamples < maxBatchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        PendingRequest next = remaining > 0
+                                ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                                : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        if (next.future.isDone()) {
+                            continue;
+                        }
+                        if (batchSamples + next.sampleCount > maxBatchSize) {
+                            carry = next;
+                            break;
+                        }
+                        batch.add(next);
+                        batchSamples += next.sampleCount;
+                    }
+
+                    flush(batch, batchSamples);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    log.error("Micro-batch dispatch failed - Model: {}", modelId, e);
+                } finally {
+                    // 中断、异常或Error退出时，本批尚未回填的请求以异常结束
+                    failAll(batch);
+                    batch.clear();
+                }
+            }
+        } finally {
+            // 调度线程退出（含Error）后不再接收新请求，遗留请求全部以异常结束
+            running = false;
+            if (carry != null) {
+                carry.future.completeExceptionally(stoppedException());
+            }
+            failQueued();
+            log.info("Micro-batch scheduler stopped - Model: {}", modelId);
+        }
+    }
+
+    private void failQueued() {
+        PendingRequest request;
+        while ((request = queue.poll()) != null) {
+            request.future.completeExceptionally(stoppedException());
+        }
+    }
+
+    private void failAll(List<PendingRequest> requests) {
+        for (PendingRequest request : requests) {
+            request.future.completeExceptionally(new IllegalStateException(
+                    "Micro-batch dispatch aborted for model: " + modelId));
+        }
+    }
+
+    private IllegalStateException stoppedException() {
+        return new IllegalStateException("Micro-batch scheduler stopped for model: " + modelId);
+    }
+
+    /**
+     * 合并批次执行一次推理，并按请求切分结果
+     */
+    private void flush(List<PendingRequest> batch, int batchSamples) {
+        FloatBuffer inputBuffer = bufferPool.acquire(batchSamples * featureDim);
+        try {
+            for (PendingRequest request : batch) {
+                inputBuffer.put(request.features, 0, request.sampleCount * featureDim);
+            }
+            inputBuffer.rewind();
+
+            float[] scores = inference.run(inputBuffer, batchSamples, featureDim);
+
+            int offset = 0;
+            for (PendingRequest request : batch) {
+                request.future.complete(Arrays.copyOfRange(scores, offset, offset + request.sampleCount));
+                offset += request.sampleCount;
+            }
+            flushCount.increment();
+            flushedSamples.add(batchSamples);
+            flushedRequests.add(batch.size());
+        } catch (Exception e) {
+            for (PendingRequest request : batch) {
+                request.future.completeExceptionally(e);
+            }
+        } finally {
+            bufferPool.release(inputBuffer);
+        }
+    }
+
+    /**
+     * 等待合并推理的请求
+     */
+    private static final class PendingRequest {
+        private final float[] features;
+        private final int sampleCount;
+        private final CompletableFuture<float[]> future = new CompletableFuture<>();
+
+        private PendingRequest(float[] features, int sampleCount) {
+            this.features = features;
+            this.sampleCount = sampleCount;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.uplivo.mdsp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.uplivo.mdsp.config.properties.ModelProperties;
+import com.uplivo.mdsp.core.tensor.RowFingerprint;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 单模型打分结果缓存：以编码后特征行的128位指纹 + 模型会话代次为键，缓存该行的预测分
+ * <p>基于Caffeine（W-TinyLFU准入：只有访问频率高于被淘汰者的新行才会挤占缓存，一次性行不会冲掉热点行），
+ * 写入后按TTL过期，容量按估算字节数限制。会话代次取模型加载时间，热加载后旧会话的结果自然失效；
+ * 预处理参数变化会改变编码结果，因此同样不会命中旧结果</p>
+ *
+ * @Author charles
+ * @Date 2025/10/30 16:30
+ * @Version 1.0.0
+ */
+@Slf4j
+public final class ScoreCache {
+
+    /**
+     * 单条缓存的估算内存占用（字节）：键对象40 + Float 16 + Caffeine节点与哈希表槽位约104
+     */
+    private static final int ENTRY_BYTES = 160;
+
+    private final String modelId;
+    private final long maxBytes;
+    private final Cache<ScoreKey, Float> cache;
+
+    public ScoreCache(String modelId, ModelProperties.ScoreCache config) {
+        this.modelId = modelId;
+        this.maxBytes = Math.max(ENTRY_BYTES, config.getMaxBytes());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((ScoreKey key, Float score) -> ENTRY_BYTES)
+                .expireAfterWrite(Math.max(1, config.getTtlMillis()), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        log.info("Score cache initialized - Model: {}, maxBytes: {}, ttlMillis: {}",
+                modelId, maxBytes, config.getTtlMillis());
+    }
+
+    /**
+     * 按行查询缓存：命中行的分数写入predictions，返回每行的缓存键与未命中行号
+     *
+     * @param generation  模型会话代次
+     * @param input       行优先特征缓冲区
+     * @param batchSize   行数
+     * @param featureDim  特征维度
+     * @param predictions 结果数组（命中行被填充）
+     * @return 查询结果（未命中行需推理后调用put回填）
+     */
+    public Lookup lookup(long generation, FloatBuffer input, int batchSize, int featureDim, float[] predictions) {
+        ScoreKey[] keys = new ScoreKey[batchSize];
+        int[] missRows = new int[batchSize];
+        int missCount = 0;
+        for (int row = 0; row < batchSize; row++) {
+            ScoreKey key = new ScoreKey(generation,
+                    RowFingerprint.high(input, row, featureDim), RowFingerprint.low(input, row, featureDim));
+            keys[row] = key;
+            Float score = cache.getIfPresent(key);
+            if (score != null) {
+                predictions[row] = score;
+            } else {
+                missRows[missCount++] = row;
+            }
+        }
+        return new Lookup(keys, missRows, missCount);
+    }
+
+    /**
+     * 回填未命中行的推理结果
+     *
+     * @param lookup     查询结果
+     * @param missScores 未命中行的预测分（与lookup.getMissRows()一一对应）
+     */
+    public void put(Lookup lookup, float[] missScores) {
+        for (int i = 0; i < lookup.missCount; i++) {
+            cache.put(lookup.keys[lookup.missRows[i]], missScores[i]);
+        }
+    }
+
+    /**
+     * 清空缓存（模型热加载后释放旧会话的结果）
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.info("Score cache invalidated - Model: {}", modelId);
+    }
+
+    /**
+     * 缓存统计信息（用于模型信息接口展示）
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        long entries = cache.estimatedSize();
+        Map<String, Object> result = new HashMap<>();
+        result.put("hitRatio", stats.hitRate());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("entries", entries);
+        result.put("estimatedBytes", entries * ENTRY_BYTES);
+        result.put("maxBytes", maxBytes);
+        return result;
+    }
+
+    /**
+     * 单批查询结果：每行的缓存键与未命中行号
+     */
+    public static final class Lookup {
+        private final ScoreKey[] keys;
+        private final int[] missRows;
+        private final int missCount;
+
+        private Lookup(ScoreKey[] keys, int[] missRows, int missCount) {
+            this.keys = keys;
+            this.missRows = missRows;
+            this.missCount = missCount;
+        }
+
+        public int getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * 未命中的行号（按行号升序）
+         */
+        public int[] getMissRows() {
+            return Arrays.copyOf(missRows, missCount);
+        }
+    }
+
+    /**
+     * 缓存键：会话代次 + 行指纹高低64位
+     */
+    private static final class ScoreKey {
+        private final long generation;
+        private final long high;
+        private final long low;
+
+        private ScoreKey(long generation, long high, long low) {
+            this.generation = generation;
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ScoreKey)) {
+                return false;
+            }
+            ScoreKey other = (ScoreKey) o;
+            return high == other.high && low == other.low && generation == other.generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (low ^ (low >>> 32));
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.uplivo.mdsp.service.impl;
 import ai.onnxruntime.OrtEnvironment;
 import com.uplivo.mdsp.common.constants.ModelConstants;
 import com.uplivo.mdsp.config.model.ModelConfigManager;
+import com.uplivo.mdsp.config.properties.PredictProperties;
+import com.uplivo.mdsp.core.metrics.LatencyMetrics;
 import com.uplivo.mdsp.core.preprocessor.deepfm.base.AbstractPreprocessor;
 import com.uplivo.mdsp.service.AbstractModelService;
 import lombok.extern.slf4j.Slf4j;
@@ -21,13 +23,15 @@ public class CtrV1PredictImpl extends AbstractModelService {
 
     private final AbstractPreprocessor preprocessor;
 
-    // 子类构造函数：必须传递父类所需的两个参数
+    // 子类构造函数：必须传递父类所需的四个参数
     public CtrV1PredictImpl(
             @Qualifier("ctrV1Preprocessor") AbstractPreprocessor preprocessor,
             OrtEnvironment ortEnvironment,
-            ModelConfigManager modelConfigManager
+            ModelConfigManager modelConfigManager,
+            LatencyMetrics latencyMetrics,
+            PredictProperties predictProperties
     ) {
-        super(ortEnvironment, modelConfigManager); // 传递给父类
+        super(ortEnvironment, modelConfigManager, latencyMetrics, predictProperties); // 传递给父类
         this.preprocessor = preprocessor;
     }
 
@@ -0,0 +1,313 @@
+package com.uplivo.mdsp.service.reload;
+
+import ai.onnxruntime.NodeInfo;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.TensorInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uplivo.mdsp.common.enums.ErrorCode;
+import com.uplivo.mdsp.common.exception.ModelException;
+import com.uplivo.mdsp.config.model.ModelConfigManager;
+import com.uplivo.mdsp.config.model.ModelContext;
+import com.uplivo.mdsp.config.model.OnnxModelConfig;
+import com.uplivo.mdsp.config.properties.ModelProperties;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.BasePreprocessorParam;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.FeaturePlan;
+import com.uplivo.mdsp.core.sample.SyntheticSampleGenerator;
+import com.uplivo.mdsp.service.AbstractModelService;
+import com.uplivo.mdsp.service.ModelServiceFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CustomizableThreadFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.FloatBuffer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Description 模型热加载服务：在请求路径之外创建并预热新会话，原子替换模型上下文
+ * <p>替换后旧上下文由引用计数跟踪，在途推理全部结束后关闭旧会话；新会话创建或预热失败时保留原会话。
+ * 支持管理接口触发，以及监听模型文件所在目录（model.reload.watch-enabled）在文件变更后自动触发</p>
+ *
+ * @Author charles
+ * @Date 2025/10/29 10:20
+ * @Version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModelReloadService {
+
+    private final OrtEnvironment ortEnvironment;
+    private final OnnxModelConfig onnxModelConfig;
+    private final ModelConfigManager modelConfigManager;
+    private final ModelProperties modelProperties;
+    private final ModelServiceFactory modelServiceFactory;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+
+    /** 文件变更防抖调度（同一模型的连续变更只触发一次加载） */
+    private final Map<String, ScheduledFuture<?>> pendingReloads = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService reloadScheduler;
+    private WatchService watchService;
+
+    /**
+     * 启用文件监听时注册模型文件所在目录
+     */
+    @PostConstruct
+    public void startWatcher() {
+        ModelProperties.Reload reload = modelProperties.getReload();
+        if (reload == null || !reload.isWatchEnabled() || modelProperties.getConfigs() == null) {
+            return;
+        }
+
+        // 目录 → (文件名 → 模型标识)
+        Map<Path, Map<Path, String>> watchedFiles = new HashMap<>();
+        modelProperties.getConfigs().forEach((modelId, config) -> {
+            if (!config.isEnabled()) {
+                return;
+            }
+            try {
+                Resource resource = resourceLoader.getResource(config.getPath());
+                if (!resource.isFile()) {
+                    log.warn("Model [{}] file watch skipped - not a file system resource: {}", modelId, config.getPath());
+                    return;
+                }
+                Path file = resource.getFile().toPath().toAbsolutePath();
+                watchedFiles.computeIfAbsent(file.getParent(), k -> new HashMap<>()).put(file.getFileName(), modelId);
+            } catch (IOException e) {
+                log.warn("Model [{}] file watch skipped - cannot resolve: {}", modelId, config.getPath(), e);
+            }
+        });
+        if (watchedFiles.isEmpty()) {
+            return;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Map<WatchKey, Map<Path, String>> filesByKey = new HashMap<>();
+            for (Map.Entry<Path, Map<Path, String>> entry : watchedFiles.entrySet()) {
+                WatchKey key = entry.getKey().register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                filesByKey.put(key, entry.getValue());
+                log.info("Watching model directory for reload: {} -> {}", entry.getKey(), entry.getValue().values());
+            }
+            reloadScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("model-reload-"));
+            Thread watcher = new Thread(() -> watchLoop(filesByKey, reload.getDebounceMillis()), "model-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException e) {
+            log.error("Failed to start model file watcher", e);
+        }
+    }
+
+    @PreDestroy
+    public void stopWatcher() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.warn("Failed to close model file watcher", e);
+            }
+        }
+        if (reloadScheduler != null) {
+            reloadScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 热加载指定模型：创建新会话 → 预热 → 原子替换，旧会话在在途推理结束后关闭
+     *
+     * @param modelId 模型标识
+     * @return 加载结果（新旧会话加载时间、耗时等）
+     * @throws ModelException 模型未配置或新会话创建/预热失败时抛出（原会话继续服务）
+     */
+    public synchronized Map<String, Object> reload(String modelId) {
+        ModelProperties.ModelConfig config = modelConfigManager.getModelConfig(modelId);
+        if (config == null || !config.isEnabled()) {
+            throw new ModelException(ErrorCode.MODEL_NOT_FOUND, "Model not configured or disabled: " + modelId);
+        }
+
+        long start = System.currentTimeMillis();
+        ModelContext newContext;
+        try {
+            newContext = onnxModelConfig.createModelContext(modelId, config);
+        } catch (Exception e) {
+            log.error("Model [{}] reload failed - session creation error, keep previous session", modelId, e);
+            throw new ModelException(ErrorCode.MODEL_LOAD_FAILED, "Model reload failed: " + modelId);
+        }
+
+        try {
+            warmUp(modelId, newContext);
+        } catch (Exception e) {
+            log.error("Model [{}] reload failed - warm-up error, keep previous session", modelId, e);
+            newContext.retire();
+            throw new ModelException(ErrorCode.MODEL_LOAD_FAILED, "Model reload warm-up failed: " + modelId);
+        }
+
+        ModelContext previous = modelConfigManager.replaceModelContext(modelId, newContext);
+        // 旧会话的打分结果不再命中（键含会话代次），清空以尽快释放内存
+        AbstractModelService service = modelServiceFactory.findServiceByVersion(modelId);
+        if (service != null) {
+            service.invalidateScoreCache();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Model [{}] reloaded in {} ms", modelId, elapsed);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("modelId", modelId);
+        result.put("loadTimestamp", newContext.getLoadTimestamp());
+        result.put("previousLoadTimestamp", previous != null ? previous.getLoadTimestamp() : null);
+        result.put("previousInFlight", previous != null ? previous.getInFlightCount() : 0);
+        result.put("elapsedMillis", elapsed);
+        return result;
+    }
+
+    /**
+     * 在新会话上执行推理（单样本与预热批大小各一次），触发内存分配与算子初始化，同时校验输入输出节点
+     * <p>预处理器已编译特征处理计划时，输入为按模型词表生成的合成样本经特征处理计划编码的结果，
+     * 覆盖与线上相近的取值分布；否则退化为全零输入</p>
+     */
+    private void warmUp(String modelId, ModelContext context) throws OrtException, IOException {
+        int featureDim = resolveFeatureDim(modelId, context);
+        int warmupBatchSize = Math.max(1, modelProperties.getReload().getWarmupBatchSize());
+        AbstractModelService service = modelServiceFactory.findServiceByVersion(modelId);
+        FeaturePlan plan = service != null ? service.getFeaturePlan() : null;
+        ModelProperties.ModelConfig config = modelConfigManager.getModelConfig(modelId);
+        if (plan == null || config.getPreprocessorPath() == null) {
+            log.warn("Model [{}] warm-up with zero input - no compiled feature plan or preprocessor params", modelId);
+            for (int batchSize : new int[]{1, warmupBatchSize}) {
+                runWarmup(modelId, context, FloatBuffer.allocate(batchSize * featureDim), batchSize, featureDim);
+            }
+            return;
+        }
+        if (plan.getFeatureDim() != featureDim) {
+            throw new ModelException(ErrorCode.MODEL_LOAD_FAILED, String.format(
+                    "Model %s input dimension %d does not match feature plan dimension %d",
+                    modelId, featureDim, plan.getFeatureDim()));
+        }
+
+        SyntheticSampleGenerator generator = SyntheticSampleGenerator.fromParam(loadParam(config), modelId.hashCode());
+        for (int batchSize : new int[]{1, warmupBatchSize}) {
+            FloatBuffer inputBuffer = service.acquireInputBuffer(batchSize * featureDim);
+            try {
+                service.encodeBatch(generator.nextBatch(batchSize), inputBuffer);
+                runWarmup(modelId, context, inputBuffer, batchSize, featureDim);
+            } finally {
+                service.releaseInputBuffer(inputBuffer);
+            }
+        }
+    }
+
+    private void runWarmup(String modelId, ModelContext context, FloatBuffer inputBuffer,
+                           int batchSize, int featureDim) throws OrtException {
+        try (OnnxTensor input = OnnxTensor.createTensor(ortEnvironment, inputBuffer, new long[]{batchSize, featureDim});
+             OrtSession.Result ignored = context.getSession().run(
+                     Collections.singletonMap(context.getInputNodeName(), input),
+                     Collections.singleton(context.getOutputNodeName()))) {
+            log.info("Model [{}] warm-up run completed - batch size: {}", modelId, batchSize);
+        }
+    }
+
+    private BasePreprocessorParam loadParam(ModelProperties.ModelConfig config) throws IOException {
+        try (InputStream is = resourceLoader.getResource(config.getPreprocessorPath()).getInputStream()) {
+            return objectMapper.readValue(is, BasePreprocessorParam.class);
+        }
+    }
+
+    /**
+     * 特征维度：优先取模型输入节点的静态形状，动态维度时取预处理器编译的特征处理计划
+     */
+    private int resolveFeatureDim(String modelId, ModelContext context) throws OrtException {
+        NodeInfo inputInfo = context.getSession().getInputInfo().get(context.getInputNodeName());
+        if (inputInfo == null) {
+            throw new ModelException(ErrorCode.MODEL_LOAD_FAILED,
+                    "Input node not found in model " + modelId + ": " + context.getInputNodeName());
+        }
+        if (inputInfo.getInfo() instanceof TensorInfo) {
+            long[] shape = ((TensorInfo) inputInfo.getInfo()).getShape();
+            if (shape.length == 2 && shape[1] > 0) {
+                return (int) shape[1];
+            }
+        }
+        AbstractModelService service = modelServiceFactory.findServiceByVersion(modelId);
+        FeaturePlan plan = service != null ? service.getFeaturePlan() : null;
+        if (plan == null) {
+            throw new ModelException(ErrorCode.MODEL_LOAD_FAILED, "Cannot resolve feature dimension for model " + modelId);
+        }
+        return plan.getFeatureDim();
+    }
+
+    private void watchLoop(Map<WatchKey, Map<Path, String>> filesByKey, long debounceMillis) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Map<Path, String> files = filesByKey.getOrDefault(key, Collections.emptyMap());
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        continue;
+                    }
+                    String modelId = files.get((Path) event.context());
+                    if (modelId != null) {
+                        scheduleReload(modelId, debounceMillis);
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Model directory no longer watchable, stop watching: {}", key.watchable());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.info("Model file watcher stopped");
+        }
+    }
+
+    private void scheduleReload(String modelId, long debounceMillis) {
+        pendingReloads.compute(modelId, (id, pending) -> {
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            // 只移除自身对应的条目：执行期间新调度的防抖任务须保留，以便后续文件事件仍能取消它
+            AtomicReference<ScheduledFuture<?>> self = new AtomicReference<>();
+            ScheduledFuture<?> future = reloadScheduler.schedule(() -> {
+                ScheduledFuture<?> current = self.get();
+                if (current != null) {
+                    pendingReloads.remove(id, current);
+                }
+                try {
+                    reload(id);
+                } catch (Exception e) {
+                    log.error("Model [{}] file-triggered reload failed", id, e);
+                }
+            }, debounceMillis, TimeUnit.MILLISECONDS);
+            self.set(future);
+            return future;
+        });
+    }
+}
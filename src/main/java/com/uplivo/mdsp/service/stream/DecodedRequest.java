@@ -0,0 +1,57 @@
+package com.uplivo.mdsp.service.stream;
+
+import com.uplivo.mdsp.core.condition.RoutingResult;
+
+import java.util.Map;
+
+/**
+ * @Description 流式解析结果：路由结果 + 各模型已编码的张量缓冲区
+ * <p>使用完毕须关闭以归还缓冲区</p>
+ *
+ * @Author charles
+ * @Date 2025/10/26 11:40
+ * @Version 1.0.0
+ */
+public final class DecodedRequest implements AutoCloseable {
+
+    private final String requestId;
+    private final RoutingResult routing;
+    private final Map<String, EncodedGroup> groups;
+
+    DecodedRequest(String requestId, RoutingResult routing, Map<String, EncodedGroup> groups) {
+        this.requestId = requestId;
+        this.routing = routing;
+        this.groups = groups;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public RoutingResult getRouting() {
+        return routing;
+    }
+
+    public int getSampleCount() {
+        return routing.getSampleCount();
+    }
+
+    /**
+     * 对路由到指定模型的全部样本打分
+     *
+     * @param model 模型标识
+     * @return 预测结果（顺序与该模型的样本下标一致）
+     */
+    public float[] score(String model) {
+        EncodedGroup group = groups.get(model);
+        if (group == null) {
+            throw new IllegalArgumentException("No samples routed to model: " + model);
+        }
+        return group.score();
+    }
+
+    @Override
+    public void close() {
+        groups.values().forEach(EncodedGroup::close);
+    }
+}
@@ -0,0 +1,166 @@
+package com.uplivo.mdsp.service.stream;
+
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.FeaturePlan;
+import com.uplivo.mdsp.service.AbstractModelService;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * @Description 流式解析中单个模型的样本分组：特征值逐个编码写入该模型的行优先张量缓冲区
+ * <p>缓冲区从模型服务的缓冲区池租用，行数超出容量时按倍增扩容；未出现的特征按空值编码补齐。
+ * 推理进行中被关闭时（如并行打分超时），缓冲区延迟到推理结束后归还，避免被其他请求复用</p>
+ *
+ * @Author charles
+ * @Date 2025/10/26 11:10
+ * @Version 1.0.0
+ */
+final class EncodedGroup {
+
+    /** 初始行容量 */
+    private static final int INITIAL_ROWS = 64;
+
+    private final String model;
+    /** 模型服务（未注册的模型为null，打分时按失败处理） */
+    private final AbstractModelService service;
+    /** 特征处理计划（模型未编译计划时为null，打分时按失败处理） */
+    private final FeaturePlan plan;
+    /** 字段序号 → 特征序号 */
+    private final int[] featureIndexes;
+    private final int featureDim;
+    /** 各特征的空值编码（用于补齐未出现的特征） */
+    private final float[] emptyEncoding;
+    private final boolean[] written;
+
+    private FloatBuffer buffer;
+    private int rows;
+    private int rowOffset;
+    private boolean scoring;
+    private boolean closed;
+
+    EncodedGroup(String model, AbstractModelService service, FeaturePlan plan, int[] featureIndexes) {
+        this.model = model;
+        this.service = service;
+        this.plan = service != null ? plan : null;
+        this.featureIndexes = featureIndexes;
+        this.featureDim = this.plan != null ? this.plan.getFeatureDim() : 0;
+        this.emptyEncoding = new float[featureDim];
+        for (int i = 0; i < featureDim; i++) {
+            emptyEncoding[i] = service.encodeFeature(plan, i, "");
+        }
+        this.written = new boolean[featureDim];
+    }
+
+    /**
+     * 开始写入新的一行
+     */
+    void startRow() {
+        if (plan == null) {
+            return;
+        }
+        ensureCapacity(rows + 1);
+        rowOffset = rows * featureDim;
+        Arrays.fill(written, false);
+    }
+
+    /**
+     * 编码并写入当前行的一个字段值（非本模型特征列的字段忽略）
+     */
+    void write(int ordinal, String value) {
+        if (plan == null) {
+            return;
+        }
+        int featureIdx = featureIndexes[ordinal];
+        if (featureIdx >= 0) {
+            buffer.put(rowOffset + featureIdx, service.encodeFeature(plan, featureIdx, value));
+            written[featureIdx] = true;
+        }
+    }
+
+    /**
+     * 结束当前行：未出现的特征按空值编码补齐
+     */
+    void finishRow() {
+        if (plan != null) {
+            for (int i = 0; i < featureDim; i++) {
+                if (!written[i]) {
+                    buffer.put(rowOffset + i, emptyEncoding[i]);
+                }
+            }
+        }
+        rows++;
+    }
+
+    /**
+     * 对已编码的全部行打分
+     *
+     * @return 预测结果（顺序与写入顺序一致）
+     */
+    float[] score() {
+        if (service == null) {
+            throw new IllegalArgumentException("Unsupported model version: " + model);
+        }
+        if (plan == null) {
+            throw new IllegalStateException("Streaming decode requires a compiled feature plan, model: " + model);
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Encoded group already released, model: " + model);
+            }
+            scoring = true;
+        }
+        try {
+            FloatBuffer input = buffer.duplicate();
+            input.position(0);
+            input.limit(rows * featureDim);
+            return service.predictEncoded(input, rows, featureDim);
+        } finally {
+            synchronized (this) {
+                scoring = false;
+                if (closed) {
+                    releaseBuffer();
+                }
+            }
+        }
+    }
+
+    /**
+     * 归还缓冲区（推理进行中时延迟到推理结束）
+     */
+    synchronized void close() {
+        closed = true;
+        if (!scoring) {
+            releaseBuffer();
+        }
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    private void ensureCapacity(int requiredRows) {
+        int required = requiredRows * featureDim;
+        if (buffer != null && required <= buffer.limit()) {
+            return;
+        }
+        int newRows = buffer == null ? Math.max(INITIAL_ROWS, requiredRows) : Math.max(requiredRows, rows * 2);
+        FloatBuffer enlarged = service.acquireInputBuffer(Math.max(1, newRows * featureDim));
+        enlarged.limit(enlarged.capacity());
+        if (buffer != null) {
+            FloatBuffer used = buffer.duplicate();
+            used.position(0);
+            used.limit(rows * featureDim);
+            enlarged.put(used);
+            enlarged.position(0);
+            service.releaseInputBuffer(buffer);
+        }
+        buffer = enlarged;
+    }
+
+    private void releaseBuffer() {
+        if (buffer != null) {
+            service.releaseInputBuffer(buffer);
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.uplivo.mdsp.service.stream;
+
+import com.alibaba.fastjson2.JSONReader;
+import com.uplivo.mdsp.core.sample.ColumnarSampleBatch;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @Description NDJSON样本读取器：每行一个JSON对象，按固定行数切分为列式样本批次
+ * <p>列名在整个输入流内按首次出现顺序分配序号，字段名按哈希查找序号（仅新字段构造名称字符串）；
+ * 同一时刻只持有一个批次，内存占用与输入总量无关。空行与解析失败的行标记为无效，由调用方按失败分数输出以保持行序对齐</p>
+ *
+ * @Author charles
+ * @Date 2025/10/26 16:20
+ * @Version 1.0.0
+ */
+@Slf4j
+public final class NdjsonSampleReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final int batchSize;
+
+    /** 字段名哈希 → 列序号（开放寻址，序号-1表示空槽） */
+    private long[] hashKeys = new long[64];
+    private int[] hashOrdinals = new int[64];
+    private int hashCount;
+    private final List<String> columns = new ArrayList<>();
+
+    private long lineNumber;
+    private boolean finished;
+
+    public NdjsonSampleReader(InputStream body, int batchSize) {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        this.batchSize = Math.max(1, batchSize);
+        Arrays.fill(hashOrdinals, -1);
+    }
+
+    /**
+     * 读取下一批样本
+     *
+     * @return 样本批次，输入已读完时返回null
+     * @throws IOException 读取输入流失败时抛出
+     */
+    public Chunk next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        List<String[]> rows = new ArrayList<>(batchSize);
+        boolean[] invalid = new boolean[batchSize];
+        String line;
+        while (rows.size() < batchSize) {
+            line = reader.readLine();
+            if (line == null) {
+                finished = true;
+                break;
+            }
+            lineNumber++;
+            // 空行与解析失败的行同样标记为无效（输出失败分数），保证分数与输入行一一对应；
+            // 输入末尾的单个换行符不会产生空行
+            String[] row = line.isBlank() ? null : parseLine(line);
+            if (row == null) {
+                invalid[rows.size()] = true;
+                row = new String[0];
+            }
+            rows.add(row);
+        }
+        if (rows.isEmpty()) {
+            return null;
+        }
+        ColumnarSampleBatch batch = new ColumnarSampleBatch(columns.toArray(new String[0]),
+                rows.toArray(new String[0][]));
+        return new Chunk(batch, invalid);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String[] parseLine(String line) {
+        String[] row = new String[Math.max(columns.size(), 8)];
+        try (JSONReader jsonReader = JSONReader.of(line)) {
+            if (!jsonReader.nextIfObjectStart()) {
+                throw new IllegalArgumentException("Line is not a JSON object");
+            }
+            while (!jsonReader.nextIfObjectEnd()) {
+                long nameHash = jsonReader.readFieldNameHashCode();
+                int ordinal = ordinalOf(nameHash);
+                if (ordinal < 0) {
+                    ordinal = addColumn(nameHash, jsonReader.getFieldName());
+                }
+                if (ordinal >= row.length) {
+                    row = Arrays.copyOf(row, Math.max(ordinal + 1, row.length * 2));
+                }
+                row[ordinal] = jsonReader.readString();
+            }
+            return row;
+        } catch (RuntimeException e) {
+            log.warn("NDJSON line {} skipped - invalid sample: {}", lineNumber, e.getMessage());
+            return null;
+        }
+    }
+
+    private int ordinalOf(long nameHash) {
+        int mask = hashKeys.length - 1;
+        int slot = spread(nameHash) & mask;
+        int ordinal;
+        while ((ordinal = hashOrdinals[slot]) >= 0) {
+            if (hashKeys[slot] == nameHash) {
+                return ordinal;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int addColumn(long nameHash, String name) {
+        if ((hashCount + 1) * 2 > hashKeys.length) {
+            long[] oldKeys = hashKeys;
+            int[] oldOrdinals = hashOrdinals;
+            hashKeys = new long[oldKeys.length * 2];
+            hashOrdinals = new int[oldOrdinals.length * 2];
+            Arrays.fill(hashOrdinals, -1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldOrdinals[i] >= 0) {
+                    insert(oldKeys[i], oldOrdinals[i]);
+                }
+            }
+        }
+        int ordinal = columns.size();
+        columns.add(name);
+        insert(nameHash, ordinal);
+        hashCount++;
+        return ordinal;
+    }
+
+    private void insert(long nameHash, int ordinal) {
+        int mask = hashKeys.length - 1;
+        int slot = spread(nameHash) & mask;
+        while (hashOrdinals[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        hashKeys[slot] = nameHash;
+        hashOrdinals[slot] = ordinal;
+    }
+
+    private static int spread(long hash) {
+        int h = (int) (hash ^ (hash >>> 32));
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 一批样本及其中的无效行标记
+     */
+    public static final class Chunk {
+        private final ColumnarSampleBatch batch;
+        private final boolean[] invalid;
+
+        private Chunk(ColumnarSampleBatch batch, boolean[] invalid) {
+            this.batch = batch;
+            this.invalid = invalid;
+        }
+
+        public ColumnarSampleBatch getBatch() {
+            return batch;
+        }
+
+        public boolean isInvalid(int row) {
+            return invalid[row];
+        }
+
+        /**
+         * 无效行标记（下标即行号，长度不小于批次行数）
+         */
+        public boolean[] getInvalidRows() {
+            return invalid;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.uplivo.mdsp.service.stream;
+
+import com.alibaba.fastjson2.util.Fnv;
+import com.uplivo.mdsp.core.condition.CompiledRuleSet;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.FeaturePlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Description 流式解析的字段序号表：路由字段与各模型特征列的并集，按字段名哈希直接定位序号
+ * <p>字段名哈希与fastjson2 JSONReader.readFieldNameHashCode一致（FNV-1a 64位），解析时无需构造字段名字符串；
+ * 同时预先计算 序号 → 路由字段槽位、序号 → 各模型特征序号 的映射</p>
+ *
+ * @Author charles
+ * @Date 2025/10/26 10:30
+ * @Version 1.0.0
+ */
+@Slf4j
+final class StreamingColumnTable {
+
+    /** 构建所依据的编译规则集（用于判断是否需要重建） */
+    private final CompiledRuleSet rules;
+    /** 构建所依据的各模型特征处理计划（用于判断是否需要重建） */
+    private final Map<String, FeaturePlan> plans;
+
+    private final long[] slotHashes;
+    private final int[] slotOrdinals;
+    private final int mask;
+
+    private final String[] columnNames;
+    /** 序号 → 路由字段槽位（非路由字段为-1） */
+    private final int[] routingSlots;
+    /** 模型 → (序号 → 特征序号，非该模型特征列为-1) */
+    private final Map<String, int[]> featureIndexesByModel;
+
+    private StreamingColumnTable(CompiledRuleSet rules, Map<String, FeaturePlan> plans) {
+        this.rules = rules;
+        this.plans = plans;
+
+        Map<String, Integer> ordinals = new LinkedHashMap<>();
+        int fieldCount = rules != null ? rules.getFieldCount() : 0;
+        for (int i = 0; i < fieldCount; i++) {
+            ordinals.putIfAbsent(rules.getField(i), ordinals.size());
+        }
+        plans.values().forEach(plan -> {
+            for (int i = 0; i < plan.getNumericCount(); i++) {
+                ordinals.putIfAbsent(plan.getNumericColumn(i), ordinals.size());
+            }
+            for (int i = 0; i < plan.getCategoricalCount(); i++) {
+                ordinals.putIfAbsent(plan.getCategoricalColumn(i), ordinals.size());
+            }
+        });
+
+        this.columnNames = ordinals.keySet().toArray(new String[0]);
+        int capacity = Integer.highestOneBit(Math.max(2, columnNames.length * 2 - 1)) << 1;
+        this.slotHashes = new long[capacity];
+        this.slotOrdinals = new int[capacity];
+        Arrays.fill(slotOrdinals, -1);
+        this.mask = capacity - 1;
+        for (int ordinal = 0; ordinal < columnNames.length; ordinal++) {
+            long hash = Fnv.hashCode64(columnNames[ordinal]);
+            int slot = spread(hash) & mask;
+            while (slotOrdinals[slot] >= 0) {
+                if (slotHashes[slot] == hash) {
+                    log.warn("Field name hash collision, streaming decode ignores column '{}' (conflicts with '{}')",
+                            columnNames[ordinal], columnNames[slotOrdinals[slot]]);
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (slotOrdinals[slot] < 0) {
+                slotHashes[slot] = hash;
+                slotOrdinals[slot] = ordinal;
+            }
+        }
+
+        this.routingSlots = new int[columnNames.length];
+        Arrays.fill(routingSlots, -1);
+        for (int i = 0; i < fieldCount; i++) {
+            routingSlots[ordinals.get(rules.getField(i))] = i;
+        }
+
+        this.featureIndexesByModel = new LinkedHashMap<>();
+        plans.forEach((model, plan) -> {
+            int[] featureIndexes = new int[columnNames.length];
+            Arrays.fill(featureIndexes, -1);
+            for (int i = 0; i < plan.getNumericCount(); i++) {
+                featureIndexes[ordinals.get(plan.getNumericColumn(i))] = i;
+            }
+            for (int i = 0; i < plan.getCategoricalCount(); i++) {
+                featureIndexes[ordinals.get(plan.getCategoricalColumn(i))] = plan.getNumericCount() + i;
+            }
+            featureIndexesByModel.put(model, featureIndexes);
+        });
+    }
+
+    /**
+     * 构建字段序号表
+     *
+     * @param rules 当前编译规则集（路由关闭时可为null）
+     * @param plans 模型 → 特征处理计划（仅包含已编译计划的模型）
+     */
+    static StreamingColumnTable build(CompiledRuleSet rules, Map<String, FeaturePlan> plans) {
+        return new StreamingColumnTable(rules, plans);
+    }
+
+    /**
+     * 判断规则集与特征处理计划是否与构建时一致（按对象引用比较）
+     */
+    boolean matches(CompiledRuleSet currentRules, Map<String, FeaturePlan> currentPlans) {
+        if (currentRules != rules || currentPlans.size() != plans.size()) {
+            return false;
+        }
+        for (Map.Entry<String, FeaturePlan> entry : currentPlans.entrySet()) {
+            if (plans.get(entry.getKey()) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按字段名哈希查找序号
+     *
+     * @return 字段序号，未知字段返回-1
+     */
+    int ordinalOf(long nameHash) {
+        int slot = spread(nameHash) & mask;
+        int ordinal;
+        while ((ordinal = slotOrdinals[slot]) >= 0) {
+            if (slotHashes[slot] == nameHash) {
+                return ordinal;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    int columnCount() {
+        return columnNames.length;
+    }
+
+    int routingSlot(int ordinal) {
+        return routingSlots[ordinal];
+    }
+
+    CompiledRuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * 模型的 序号 → 特征序号 映射（模型无已编译计划时返回null）
+     */
+    int[] featureIndexes(String model) {
+        return featureIndexesByModel.get(model);
+    }
+
+    FeaturePlan plan(String model) {
+        return plans.get(model);
+    }
+
+    private static int spread(long hash) {
+        int h = (int) (hash ^ (hash >>> 32));
+        return h ^ (h >>> 16);
+    }
+}
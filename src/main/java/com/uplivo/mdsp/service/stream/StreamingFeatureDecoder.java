@@ -0,0 +1,239 @@
+package com.uplivo.mdsp.service.stream;
+
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.util.Fnv;
+import com.uplivo.mdsp.core.condition.CompiledRuleSet;
+import com.uplivo.mdsp.core.condition.ConditionRouter;
+import com.uplivo.mdsp.core.condition.RoutingResult;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.FeaturePlan;
+import com.uplivo.mdsp.service.AbstractModelService;
+import com.uplivo.mdsp.service.ModelServiceFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description 流式请求解码器：基于fastjson2 JSONReader逐字段解析，边解析边路由、边编码
+ * <p>请求格式与 /api/model/predict 一致（{"requestId": ..., "features": [{...}, ...]}）。
+ * 字段名按哈希直接映射为字段序号；样本的路由字段读齐后立即路由，此前读到的特征值暂存，此后的特征值直接编码写入
+ * 目标模型张量缓冲区的对应行；不构建FeatureRequest对象图与逐样本Map，单请求堆占用约为编码后的张量大小</p>
+ *
+ * @Author charles
+ * @Date 2025/10/26 14:00
+ * @Version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamingFeatureDecoder {
+
+    private static final long HASH_REQUEST_ID = Fnv.hashCode64("requestId");
+    private static final long HASH_FEATURES = Fnv.hashCode64("features");
+
+    private final ConditionRouter conditionRouter;
+    private final ModelServiceFactory modelFactory;
+
+    /** 字段序号表（规则集或特征处理计划变化时重建） */
+    private volatile StreamingColumnTable columnTable;
+
+    /**
+     * 解析请求并完成路由与特征编码
+     *
+     * @param body 请求体（UTF-8 JSON）
+     * @return 解析结果（使用完毕须关闭）
+     * @throws IllegalArgumentException 请求格式不合法时抛出
+     */
+    public DecodedRequest decode(InputStream body) {
+        RequestState state = new RequestState(columnTable());
+        try (JSONReader reader = JSONReader.of(body, StandardCharsets.UTF_8)) {
+            if (!reader.nextIfObjectStart()) {
+                throw new IllegalArgumentException("Request body must be a JSON object");
+            }
+            while (!reader.nextIfObjectEnd()) {
+                long nameHash = reader.readFieldNameHashCode();
+                if (nameHash == HASH_REQUEST_ID) {
+                    state.requestId = reader.readString();
+                } else if (nameHash == HASH_FEATURES) {
+                    decodeFeatures(reader, state);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            return state.toDecodedRequest();
+        } catch (RuntimeException e) {
+            state.closeGroups();
+            throw e;
+        }
+    }
+
+    private void decodeFeatures(JSONReader reader, RequestState state) {
+        if (reader.nextIfNull()) {
+            return;
+        }
+        if (!reader.nextIfArrayStart()) {
+            throw new IllegalArgumentException("Field 'features' must be an array");
+        }
+        StreamingColumnTable table = state.table;
+        while (!reader.nextIfArrayEnd()) {
+            state.startRow();
+            if (!reader.nextIfNull()) {
+                if (!reader.nextIfObjectStart()) {
+                    throw new IllegalArgumentException("Each sample must be a JSON object");
+                }
+                while (!reader.nextIfObjectEnd()) {
+                    int ordinal = table.ordinalOf(reader.readFieldNameHashCode());
+                    if (ordinal < 0) {
+                        reader.skipValue();
+                    } else {
+                        state.accept(ordinal, reader.readString());
+                    }
+                }
+            }
+            state.endRow();
+        }
+    }
+
+    /**
+     * 获取字段序号表（规则集或任一模型的特征处理计划变化时重建）
+     */
+    private StreamingColumnTable columnTable() {
+        CompiledRuleSet rules = conditionRouter.getCompiledRules();
+        Map<String, FeaturePlan> plans = new HashMap<>();
+        modelFactory.getServices().forEach((model, service) -> {
+            FeaturePlan plan = service.getFeaturePlan();
+            if (plan != null) {
+                plans.put(model, plan);
+            }
+        });
+
+        StreamingColumnTable table = columnTable;
+        if (table == null || !table.matches(rules, plans)) {
+            table = StreamingColumnTable.build(rules, plans);
+            columnTable = table;
+            log.info("Streaming column table built - Columns: {}, Models: {}", table.columnCount(), plans.keySet());
+        }
+        return table;
+    }
+
+    /**
+     * 单次请求的解析状态
+     */
+    private final class RequestState {
+        private final StreamingColumnTable table;
+        /** 路由关闭时为null，所有样本使用默认模型 */
+        private final CompiledRuleSet rules;
+        private final String defaultModel;
+        private final int routingFieldCount;
+
+        private final String[] routingValues;
+        private final boolean[] routingSeen;
+        private final long[] scratch;
+        private int routingSeenCount;
+
+        /** 路由前读到的字段值（按字段序号暂存） */
+        private final String[] pendingValues;
+        private final boolean[] pendingMarked;
+        private final int[] pendingOrdinals;
+        private int pendingCount;
+
+        private final Map<String, EncodedGroup> groups = new LinkedHashMap<>();
+        private final List<String> modelPerRow = new ArrayList<>();
+        private EncodedGroup currentGroup;
+        private String requestId;
+
+        private RequestState(StreamingColumnTable table) {
+            this.table = table;
+            this.rules = conditionRouter.isEnabled() ? table.getRules() : null;
+            this.defaultModel = conditionRouter.getDefaultModel();
+            this.routingFieldCount = rules != null ? rules.getFieldCount() : 0;
+            this.routingValues = new String[routingFieldCount];
+            this.routingSeen = new boolean[routingFieldCount];
+            this.scratch = rules != null ? rules.newScratch() : null;
+            this.pendingValues = new String[table.columnCount()];
+            this.pendingMarked = new boolean[table.columnCount()];
+            this.pendingOrdinals = new int[table.columnCount()];
+        }
+
+        private void startRow() {
+            currentGroup = null;
+            routingSeenCount = 0;
+            for (int i = 0; i < routingFieldCount; i++) {
+                routingValues[i] = null;
+                routingSeen[i] = false;
+            }
+            if (routingFieldCount == 0) {
+                route();
+            }
+        }
+
+        private void accept(int ordinal, String value) {
+            if (currentGroup != null) {
+                currentGroup.write(ordinal, value);
+                return;
+            }
+
+            int slot = rules != null ? table.routingSlot(ordinal) : -1;
+            if (slot >= 0) {
+                routingValues[slot] = value;
+                if (!routingSeen[slot]) {
+                    routingSeen[slot] = true;
+                    routingSeenCount++;
+                }
+            }
+            pendingValues[ordinal] = value;
+            if (!pendingMarked[ordinal]) {
+                pendingMarked[ordinal] = true;
+                pendingOrdinals[pendingCount++] = ordinal;
+            }
+            if (routingSeenCount == routingFieldCount) {
+                route();
+            }
+        }
+
+        private void endRow() {
+            if (currentGroup == null) {
+                route();
+            }
+            currentGroup.finishRow();
+        }
+
+        /**
+         * 路由当前样本，并将暂存的字段值写入目标模型
+         */
+        private void route() {
+            String model = rules != null ? rules.route(routingValues, scratch) : defaultModel;
+            modelPerRow.add(model);
+            currentGroup = groups.computeIfAbsent(model, this::createGroup);
+            currentGroup.startRow();
+            for (int i = 0; i < pendingCount; i++) {
+                int ordinal = pendingOrdinals[i];
+                currentGroup.write(ordinal, pendingValues[ordinal]);
+                pendingValues[ordinal] = null;
+                pendingMarked[ordinal] = false;
+            }
+            pendingCount = 0;
+        }
+
+        private EncodedGroup createGroup(String model) {
+            AbstractModelService service = modelFactory.findServiceByVersion(model);
+            return new EncodedGroup(model, service, table.plan(model), table.featureIndexes(model));
+        }
+
+        private DecodedRequest toDecodedRequest() {
+            RoutingResult routing = RoutingResult.of(modelPerRow.toArray(new String[0]));
+            return new DecodedRequest(requestId, routing, groups);
+        }
+
+        private void closeGroups() {
+            groups.values().forEach(EncodedGroup::close);
+        }
+    }
+}
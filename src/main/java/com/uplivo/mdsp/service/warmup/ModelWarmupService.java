@@ -0,0 +1,271 @@
+package com.uplivo.mdsp.service.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uplivo.mdsp.common.exception.ModelException;
+import com.uplivo.mdsp.config.model.ModelConfigManager;
+import com.uplivo.mdsp.config.properties.ModelProperties;
+import com.uplivo.mdsp.config.properties.WarmupProperties;
+import com.uplivo.mdsp.core.condition.ConditionRouter;
+import com.uplivo.mdsp.core.metrics.LatencyMetrics;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.BasePreprocessorParam;
+import com.uplivo.mdsp.core.sample.SyntheticSampleGenerator;
+import com.uplivo.mdsp.domain.request.FeatureRequest;
+import com.uplivo.mdsp.service.AbstractModelService;
+import com.uplivo.mdsp.service.ModelServiceFactory;
+import com.uplivo.mdsp.service.stream.DecodedRequest;
+import com.uplivo.mdsp.service.stream.StreamingFeatureDecoder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 启动预热服务：服务启动后以各模型词表生成的合成样本，按多种批大小反复执行 JSON解析 → 路由 → 预处理 → 推理 全流程
+ * <p>每轮额外计时一次探测批，相邻窗口的延迟中位数变化不超过容差时判定该模型已稳定；
+ * 全部模型预热结束（稳定、跳过，或超时且允许超时就绪）后就绪接口才返回就绪。
+ * 预热期间各模型跳过打分结果缓存，预热结束时清空分阶段耗时指标，合成流量不影响线上缓存与监控</p>
+ *
+ * @Author charles
+ * @Date 2025/10/29 15:30
+ * @Version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModelWarmupService {
+
+    /**
+     * 单模型预热状态
+     */
+    public enum Status {
+        /** 等待预热 */
+        PENDING,
+        /** 预热中 */
+        RUNNING,
+        /** 延迟已稳定 */
+        STABLE,
+        /** 达到最长预热时间仍未稳定 */
+        TIMEOUT,
+        /** 模型未加载或无对应服务，跳过 */
+        SKIPPED,
+        /** 预热过程出错 */
+        FAILED
+    }
+
+    private final ModelServiceFactory modelServiceFactory;
+    private final ModelConfigManager modelConfigManager;
+    private final ModelProperties modelProperties;
+    private final WarmupProperties warmupProperties;
+    private final ConditionRouter conditionRouter;
+    private final StreamingFeatureDecoder streamingFeatureDecoder;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final LatencyMetrics latencyMetrics;
+
+    /** 各模型预热进度（模型标识 → 进度） */
+    private final Map<String, ModelProgress> progressByModel = new LinkedHashMap<>();
+
+    private volatile boolean completed = false;
+
+    /**
+     * 服务启动完成后在后台线程执行预热（预热期间存活探测正常、就绪探测返回未就绪）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmup() {
+        if (!warmupProperties.isEnabled() || modelProperties.getConfigs() == null) {
+            completed = true;
+            log.info("Model warm-up disabled, service ready");
+            return;
+        }
+        synchronized (progressByModel) {
+            modelProperties.getConfigs().forEach((modelId, config) -> {
+                if (config.isEnabled()) {
+                    progressByModel.put(modelId, new ModelProgress());
+                }
+            });
+        }
+        Thread warmupThread = new Thread(this::warmupAll, "model-warmup");
+        warmupThread.setDaemon(true);
+        warmupThread.start();
+    }
+
+    /**
+     * 是否就绪：预热已结束，且每个模型均已稳定、被跳过，或超时且允许超时就绪
+     */
+    public boolean isReady() {
+        if (!completed) {
+            return false;
+        }
+        synchronized (progressByModel) {
+            for (ModelProgress progress : progressByModel.values()) {
+                Status status = progress.status;
+                boolean ready = status == Status.STABLE || status == Status.SKIPPED
+                        || (status == Status.TIMEOUT && warmupProperties.isReadyOnTimeout());
+                if (!ready) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 就绪详情（用于就绪接口展示）
+     */
+    public Map<String, Object> getReadiness() {
+        Map<String, Object> readiness = new LinkedHashMap<>();
+        readiness.put("ready", isReady());
+        readiness.put("warmupCompleted", completed);
+        Map<String, Object> models = new LinkedHashMap<>();
+        synchronized (progressByModel) {
+            progressByModel.forEach((modelId, progress) -> models.put(modelId, progress.toMap()));
+        }
+        readiness.put("models", models);
+        return readiness;
+    }
+
+    private void warmupAll() {
+        long start = System.currentTimeMillis();
+        Map<String, ModelProgress> snapshot;
+        synchronized (progressByModel) {
+            snapshot = new LinkedHashMap<>(progressByModel);
+        }
+        snapshot.forEach(this::warmupModel);
+        latencyMetrics.reset();
+        modelServiceFactory.getServices().values().forEach(AbstractModelService::resetStats);
+        completed = true;
+        log.info("Model warm-up completed in {} ms - ready: {}", System.currentTimeMillis() - start, isReady());
+    }
+
+    private void warmupModel(String modelId, ModelProgress progress) {
+        AbstractModelService service = modelServiceFactory.findServiceByVersion(modelId);
+        if (service == null || !isLoaded(modelId)) {
+            progress.status = Status.SKIPPED;
+            progress.message = service == null ? "No model service registered" : "Model not loaded";
+            log.warn("Model [{}] warm-up skipped - {}", modelId, progress.message);
+            return;
+        }
+
+        progress.status = Status.RUNNING;
+        long start = System.nanoTime();
+        service.setScoreCacheBypassed(true);
+        try {
+            SyntheticSampleGenerator generator = SyntheticSampleGenerator.fromParam(
+                    loadParam(modelProperties.getConfigs().get(modelId)), modelId.hashCode());
+            List<Integer> batchSizes = warmupProperties.getBatchSizes();
+            int probeBatchSize = Math.max(1, warmupProperties.getProbeBatchSize());
+            int windowSize = Math.max(2, warmupProperties.getWindowSize());
+            long deadline = start + TimeUnit.SECONDS.toNanos(warmupProperties.getMaxDurationSeconds());
+
+            List<Map<String, String>> probe = generator.nextBatch(probeBatchSize);
+            long[] window = new long[windowSize];
+            long previousMedian = -1;
+            while (true) {
+                // 各批大小走完整链路：JSON序列化/反序列化 → 流式解析 → 路由 → 预处理 → 推理
+                for (int batchSize : batchSizes) {
+                    runFullPath(service, generator.nextBatch(batchSize));
+                }
+                long probeStart = System.nanoTime();
+                service.predict(probe);
+                window[progress.rounds % windowSize] = System.nanoTime() - probeStart;
+                progress.rounds++;
+
+                if (progress.rounds % windowSize == 0) {
+                    long median = median(window);
+                    progress.probeMedianMicros = TimeUnit.NANOSECONDS.toMicros(median);
+                    if (progress.rounds >= warmupProperties.getMinRounds() && previousMedian > 0
+                            && Math.abs(median - previousMedian) <= warmupProperties.getStabilityTolerance() * previousMedian) {
+                        progress.status = Status.STABLE;
+                        break;
+                    }
+                    previousMedian = median;
+                }
+                if (System.nanoTime() > deadline) {
+                    progress.status = Status.TIMEOUT;
+                    progress.message = "Latency not stabilized within " + warmupProperties.getMaxDurationSeconds() + "s";
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            progress.status = Status.FAILED;
+            progress.message = e.getMessage();
+            log.error("Model [{}] warm-up failed", modelId, e);
+        } finally {
+            service.setScoreCacheBypassed(false);
+            progress.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        log.info("Model [{}] warm-up finished - status: {}, rounds: {}, probe median: {} µs, elapsed: {} ms",
+                modelId, progress.status, progress.rounds, progress.probeMedianMicros, progress.elapsedMillis);
+    }
+
+    /**
+     * 完整链路预热：请求对象JSON往返（预热Jackson缓存）、流式解析（预热fastjson2）、条件路由，最后按指定模型打分
+     */
+    private void runFullPath(AbstractModelService service, List<Map<String, String>> samples) throws IOException {
+        FeatureRequest request = new FeatureRequest();
+        request.setRequestId("warmup");
+        request.setFeatures(samples);
+        byte[] body = objectMapper.writeValueAsBytes(request);
+        FeatureRequest parsed = objectMapper.readValue(body, FeatureRequest.class);
+
+        try (DecodedRequest ignored = streamingFeatureDecoder.decode(new ByteArrayInputStream(body))) {
+            conditionRouter.routeFeatures(parsed.getFeatures());
+        }
+        service.predict(parsed.getFeatures());
+    }
+
+    private boolean isLoaded(String modelId) {
+        try {
+            modelConfigManager.getModelContext(modelId);
+            return true;
+        } catch (ModelException e) {
+            return false;
+        }
+    }
+
+    private BasePreprocessorParam loadParam(ModelProperties.ModelConfig config) throws IOException {
+        try (InputStream is = resourceLoader.getResource(config.getPreprocessorPath()).getInputStream()) {
+            return objectMapper.readValue(is, BasePreprocessorParam.class);
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * 单模型预热进度（预热线程写入，就绪接口读取）
+     */
+    private static final class ModelProgress {
+        private volatile Status status = Status.PENDING;
+        private volatile int rounds;
+        private volatile long probeMedianMicros;
+        private volatile long elapsedMillis;
+        private volatile String message;
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("status", status);
+            map.put("rounds", rounds);
+            map.put("probeMedianMicros", probeMedianMicros);
+            map.put("elapsedMillis", elapsedMillis);
+            if (message != null) {
+                map.put("message", message);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.uplivo.mdsp.perf;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description 高精度延迟记录器：对数-线性分桶（每个2的幂区间再分128个子桶，相对误差 < 1%），并发无锁记录
+ * <p>用于负载测试的分位数统计，覆盖 1ns ~ 约18分钟，超出上限的取值计入最后一个桶</p>
+ *
+ * @Author charles
+ * @Date 2025/10/28 15:10
+ * @Version 1.0.0
+ */
+public final class LatencyRecorder {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKET_COUNT = SUB_COUNT + (MAX_EXPONENT - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * 记录一次耗时（纳秒）
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0L), MAX_VALUE);
+        counts.incrementAndGet(index(value));
+        totalCount.increment();
+        maxValue.accumulate(value);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxValue.get();
+    }
+
+    /**
+     * 分位数（纳秒，取所在桶的上界，不超过记录到的最大值）
+     *
+     * @param quantile 分位点（0~1）
+     */
+    public long getQuantileNanos(double quantile) {
+        long total = totalCount.sum();
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * 常用分位数摘要（毫秒）
+     */
+    public String summary() {
+        return String.format("p50=%.2fms p90=%.2fms p99=%.2fms p999=%.2fms max=%.2fms",
+                toMillis(getQuantileNanos(0.50)), toMillis(getQuantileNanos(0.90)),
+                toMillis(getQuantileNanos(0.99)), toMillis(getQuantileNanos(0.999)), toMillis(getMaxNanos()));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_COUNT - 1);
+        return SUB_COUNT + shift * SUB_COUNT + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_COUNT) / SUB_COUNT;
+        int sub = (index - SUB_COUNT) % SUB_COUNT;
+        return ((long) (SUB_COUNT + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,263 @@
+package com.uplivo.mdsp.perf;
+
+import com.alibaba.fastjson2.JSON;
+import com.uplivo.mdsp.MdspApplication;
+import com.uplivo.mdsp.common.constants.ModelConstants;
+import com.uplivo.mdsp.core.sample.SyntheticSampleGenerator;
+import com.uplivo.mdsp.domain.request.FeatureRequest;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @Description HTTP服务负载生成器：按目标QPS开环发送合成FeatureRequest，输出修正协同遗漏后的延迟分位数与吞吐
+ * <p>第i个请求的计划发送时间固定为 start + i / qps，延迟从计划发送时间起算：服务端变慢导致发送被推迟时，
+ * 推迟的时间同样计入延迟（修正协同遗漏），另单独输出从实际发送起算的服务耗时以便对照</p>
+ * <p>未指定--url时在进程内以随机端口启动服务（condition.default-model默认设为ctr_v1，使v1流量可路由）。
+ * 用法：mvn -Pperf test-compile exec:exec -Dperf.main=com.uplivo.mdsp.perf.LoadGenerator
+ * -Dperf.args="--qps=2000 --duration-seconds=60 --v2-ratio=0.3 --batch-sizes=1:50,16:30,64:15,256:5"</p>
+ *
+ * @Author charles
+ * @Date 2025/10/28 15:30
+ * @Version 1.0.0
+ */
+public final class LoadGenerator {
+
+    private static final String PREDICT_PATH = "/api/model/predict";
+
+    private final String baseUrl;
+    private final double qps;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final long reportNanos;
+    private final Duration requestTimeout;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final List<byte[]> bodies;
+    private final int[] bodySamples;
+    private final HttpClient client;
+
+    private final LatencyRecorder totalCorrected = new LatencyRecorder();
+    private final LatencyRecorder totalService = new LatencyRecorder();
+    private final AtomicReference<LatencyRecorder> intervalCorrected = new AtomicReference<>(new LatencyRecorder());
+    private final LongAdder okRequests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder scoredSamples = new LongAdder();
+    /** 因在途请求达到上限而推迟发送的请求数（非零说明压测端或服务已饱和） */
+    private final LongAdder delayedSends = new LongAdder();
+
+    private LoadGenerator(Map<String, String> options, String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.qps = Double.parseDouble(options.getOrDefault("qps", "500"));
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup-seconds", "10")));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration-seconds", "60")));
+        this.reportNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("report-seconds", "5")));
+        this.requestTimeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-millis", "5000")));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "1024"));
+        this.inFlight = new Semaphore(maxInFlight);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(
+                        Integer.parseInt(options.getOrDefault("client-threads", "8"))))
+                .build();
+
+        // 预先生成请求体池，避免样本生成与序列化成为压测端瓶颈
+        int poolSize = Integer.parseInt(options.getOrDefault("body-pool", "512"));
+        double v2Ratio = Double.parseDouble(options.getOrDefault("v2-ratio", "0.5"));
+        String[] v1Adx = options.getOrDefault("v1-adx", "10000").split(",");
+        String[] v2Adx = options.getOrDefault("v2-adx", "20020,20014").split(",");
+        int[][] batchSizes = parseWeights(options.getOrDefault("batch-sizes", "1:50,16:30,64:15,256:5"));
+
+        Random random = new Random(PerfFixtures.SEED);
+        SyntheticSampleGenerator v1Generator = PerfFixtures.newGenerator(ModelConstants.CTR_V1);
+        SyntheticSampleGenerator v2Generator = PerfFixtures.newGenerator(ModelConstants.CTR_V2);
+        this.bodies = new ArrayList<>(poolSize);
+        this.bodySamples = new int[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            int batchSize = pickWeighted(batchSizes, random);
+            List<Map<String, String>> features = new ArrayList<>(batchSize);
+            for (int s = 0; s < batchSize; s++) {
+                boolean v2 = random.nextDouble() < v2Ratio;
+                Map<String, String> sample = v2 ? v2Generator.nextSample() : v1Generator.nextSample();
+                String[] adx = v2 ? v2Adx : v1Adx;
+                sample.put("adx", adx[random.nextInt(adx.length)]);
+                features.add(sample);
+            }
+            FeatureRequest request = new FeatureRequest();
+            request.setRequestId("load-" + i);
+            request.setFeatures(features);
+            bodies.add(JSON.toJSONBytes(request));
+            bodySamples[i] = batchSize;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("url");
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(MdspApplication.class)
+                    .properties("server.port=0",
+                            "condition.default-model=" + options.getOrDefault("default-model", ModelConstants.CTR_V1))
+                    .run();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            System.out.println("Service started in-process at " + baseUrl);
+        }
+        try {
+            new LoadGenerator(options, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            System.exit(0);
+        }
+    }
+
+    private void run() throws InterruptedException {
+        URI uri = URI.create(baseUrl + PREDICT_PATH);
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / qps);
+        long start = System.nanoTime();
+        long recordFrom = start + warmupNanos;
+        long end = recordFrom + durationNanos;
+        System.out.printf("Target: %.0f req/s, warmup %ds, measure %ds, %d distinct request bodies%n",
+                qps, TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos),
+                bodies.size());
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(this::reportInterval, reportNanos, reportNanos, TimeUnit.NANOSECONDS);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * periodNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                delayedSends.increment();
+                inFlight.acquire();
+            }
+
+            int bodyIdx = (int) (i % bodies.size());
+            boolean measured = intended >= recordFrom;
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(bodies.get(bodyIdx)))
+                    .build();
+            long sentAt = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        long now = System.nanoTime();
+                        inFlight.release();
+                        if (!measured) {
+                            return;
+                        }
+                        totalCorrected.record(now - intended);
+                        totalService.record(now - sentAt);
+                        intervalCorrected.get().record(now - intended);
+                        if (error == null && response.statusCode() == 200
+                                && response.body().contains("\"success\":true")) {
+                            okRequests.increment();
+                            scoredSamples.add(bodySamples[bodyIdx]);
+                        } else {
+                            failedRequests.increment();
+                        }
+                    });
+        }
+
+        // 等待在途请求完成
+        if (!inFlight.tryAcquire(maxInFlight, requestTimeout.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+            System.out.println("Timed out waiting for in-flight requests to drain");
+        }
+        reporter.shutdownNow();
+        reportTotal(TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+    }
+
+    private void reportInterval() {
+        LatencyRecorder interval = intervalCorrected.getAndSet(new LatencyRecorder());
+        if (interval.getCount() > 0) {
+            System.out.printf("[interval] requests=%d %s%n", interval.getCount(), interval.summary());
+        }
+    }
+
+    private void reportTotal(long seconds) {
+        long ok = okRequests.sum();
+        long failed = failedRequests.sum();
+        double elapsed = Math.max(1, seconds);
+        System.out.println("==================== Load test summary ====================");
+        System.out.printf("Requests: ok=%d failed=%d delayedSends=%d%n", ok, failed, delayedSends.sum());
+        System.out.printf("Throughput: target=%.0f req/s achieved=%.0f req/s samples=%.0f/s%n",
+                qps, (ok + failed) / elapsed, scoredSamples.sum() / elapsed);
+        System.out.println("Latency (corrected, from intended send): " + totalCorrected.summary());
+        System.out.println("Latency (service, from actual send):     " + totalService.summary());
+    }
+
+    /**
+     * 解析 --key=value 形式的参数
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * 解析 value:weight 列表，如 "1:50,16:30,64:15,256:5"
+     */
+    private static int[][] parseWeights(String spec) {
+        String[] items = spec.split(",");
+        int[][] weights = new int[items.length][2];
+        for (int i = 0; i < items.length; i++) {
+            String[] parts = items[i].trim().split(":");
+            weights[i][0] = Integer.parseInt(parts[0]);
+            weights[i][1] = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+        }
+        return weights;
+    }
+
+    private static int pickWeighted(int[][] weights, Random random) {
+        int total = 0;
+        for (int[] weight : weights) {
+            total += weight[1];
+        }
+        int pick = random.nextInt(total);
+        for (int[] weight : weights) {
+            pick -= weight[1];
+            if (pick < 0) {
+                return weight[0];
+            }
+        }
+        return weights[weights.length - 1][0];
+    }
+}
@@ -0,0 +1,31 @@
+package com.uplivo.mdsp.perf;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @Description 基准测试入口：在JMH命令行参数基础上固定启用GC profiler，同时输出 ns/op 与 B/op（gc.alloc.rate.norm）
+ * <p>用法：mvn -Pperf test-compile exec:exec -Dperf.args="PreprocessBenchmark -p batchSize=1024"</p>
+ *
+ * @Author charles
+ * @Date 2025/10/28 12:10
+ * @Version 1.0.0
+ */
+public final class PerfBenchmarks {
+
+    private PerfBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include("com\\.uplivo\\.mdsp\\..*Benchmark");
+        }
+        options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,152 @@
+package com.uplivo.mdsp.perf;
+
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uplivo.mdsp.common.constants.ModelConstants;
+import com.uplivo.mdsp.config.environment.ContainerCpuLimits;
+import com.uplivo.mdsp.config.model.ModelConfigManager;
+import com.uplivo.mdsp.config.model.ModelContext;
+import com.uplivo.mdsp.config.properties.ModelProperties;
+import com.uplivo.mdsp.config.properties.PredictProperties;
+import com.uplivo.mdsp.core.metrics.LatencyMetrics;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.AbstractPreprocessor;
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.BasePreprocessorParam;
+import com.uplivo.mdsp.core.preprocessor.deepfm.ctr.v1.CTRV1Preprocessor;
+import com.uplivo.mdsp.core.preprocessor.deepfm.ctr.v1.CtrV1Param;
+import com.uplivo.mdsp.core.preprocessor.deepfm.ctr.v2.CTRV2Preprocessor;
+import com.uplivo.mdsp.core.preprocessor.deepfm.ctr.v2.CtrV2Param;
+import com.uplivo.mdsp.core.sample.SyntheticSampleGenerator;
+import com.uplivo.mdsp.service.impl.CtrV1PredictImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+
+/**
+ * @Description 基准测试公共装配：脱离Spring容器，按application.yml中的资源路径直接构建预处理器与模型服务
+ *
+ * @Author charles
+ * @Date 2025/10/28 10:30
+ * @Version 1.0.0
+ */
+public final class PerfFixtures {
+
+    public static final String CTR_V1_MODEL = "models/ctr/v1/criteo_ctr_model.onnx";
+    public static final String CTR_V1_PREPROCESSOR = "models/ctr/v1/criteo_preprocessor.json";
+    public static final String CTR_V2_PREPROCESSOR = "models/ctr/v2/ctr_preprocessor.json";
+    public static final String CTR_V1_INPUT_NODE = "criteo_features";
+    public static final String CTR_V1_OUTPUT_NODE = "ctr_prob";
+
+    /** 样本生成固定种子（保证多次运行、多次fork的样本一致） */
+    public static final long SEED = 20251028L;
+
+    private PerfFixtures() {
+    }
+
+    /**
+     * 加载模型的预处理参数
+     */
+    public static BasePreprocessorParam loadParam(String modelId) {
+        switch (modelId) {
+            case ModelConstants.CTR_V1:
+                return readJson(CTR_V1_PREPROCESSOR, CtrV1Param.class);
+            case ModelConstants.CTR_V2:
+                return readJson(CTR_V2_PREPROCESSOR, CtrV2Param.class);
+            default:
+                throw new IllegalArgumentException("Unsupported model: " + modelId);
+        }
+    }
+
+    /**
+     * 构建并初始化模型的预处理器（已编译特征处理计划）
+     */
+    public static AbstractPreprocessor newPreprocessor(String modelId) {
+        AbstractPreprocessor preprocessor;
+        switch (modelId) {
+            case ModelConstants.CTR_V1:
+                preprocessor = new CTRV1Preprocessor((CtrV1Param) loadParam(modelId));
+                break;
+            case ModelConstants.CTR_V2:
+                preprocessor = new CTRV2Preprocessor((CtrV2Param) loadParam(modelId));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported model: " + modelId);
+        }
+        preprocessor.initParams();
+        return preprocessor;
+    }
+
+    /**
+     * 按模型词表构建合成样本生成器
+     */
+    public static SyntheticSampleGenerator newGenerator(String modelId) {
+        return SyntheticSampleGenerator.fromParam(loadParam(modelId), SEED);
+    }
+
+    /**
+     * 创建内置CTR v1模型的推理会话（与OnnxModelConfig单模型时的默认会话参数一致）
+     */
+    public static OrtSession newCtrV1Session(OrtEnvironment environment) throws OrtException {
+        try (OrtSession.SessionOptions sessionOptions = new OrtSession.SessionOptions()) {
+            sessionOptions.setIntraOpNumThreads(ContainerCpuLimits.availableCpus());
+            sessionOptions.setExecutionMode(OrtSession.SessionOptions.ExecutionMode.SEQUENTIAL);
+            sessionOptions.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+            return environment.createSession(readBytes(CTR_V1_MODEL), sessionOptions);
+        }
+    }
+
+    /**
+     * 基于已创建的会话构建CTR v1模型服务（未启用微批）
+     */
+    public static CtrV1PredictImpl newCtrV1Service(OrtEnvironment environment, OrtSession session) {
+        ModelContext context = ModelContext.builder()
+                .modelId(ModelConstants.CTR_V1)
+                .modelName("ctr_model")
+                .modelVersion("v1")
+                .modelType("CTR")
+                .session(session)
+                .inputNodeName(CTR_V1_INPUT_NODE)
+                .outputNodeName(CTR_V1_OUTPUT_NODE)
+                .modelPath("classpath:" + CTR_V1_MODEL)
+                .loadTimestamp(System.currentTimeMillis())
+                .build();
+        ModelConfigManager configManager = new ModelConfigManager(
+                Collections.singletonMap(ModelConstants.CTR_V1, context), new ModelProperties());
+        return new CtrV1PredictImpl(newPreprocessor(ModelConstants.CTR_V1), environment, configManager,
+                new LatencyMetrics(), new PredictProperties());
+    }
+
+    private static <T> T readJson(String resource, Class<T> type) {
+        try (InputStream is = open(resource)) {
+            return new ObjectMapper().readValue(is, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + resource, e);
+        }
+    }
+
+    private static byte[] readBytes(String resource) {
+        try (InputStream is = open(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = is.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + resource, e);
+        }
+    }
+
+    private static InputStream open(String resource) throws IOException {
+        InputStream is = PerfFixtures.class.getClassLoader().getResourceAsStream(resource);
+        if (is == null) {
+            throw new IOException("Resource not found on classpath: " + resource);
+        }
+        return is;
+    }
+}
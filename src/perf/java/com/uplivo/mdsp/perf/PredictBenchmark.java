@@ -0,0 +1,80 @@
+package com.uplivo.mdsp.perf;
+
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import com.uplivo.mdsp.common.constants.ModelConstants;
+import com.uplivo.mdsp.core.sample.ColumnarSampleBatch;
+import com.uplivo.mdsp.core.sample.SyntheticSampleGenerator;
+import com.uplivo.mdsp.service.AbstractModelService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 端到端预测基准：内置 criteo_ctr_model.onnx 上的 预处理 → 张量创建 → 会话推理 → 结果解析
+ *
+ * @Author charles
+ * @Date 2025/10/28 12:00
+ * @Version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PredictBenchmark {
+
+    @Param({"1", "16", "64", "256", "1024"})
+    private int batchSize;
+
+    private OrtSession session;
+    private AbstractModelService service;
+    private List<Map<String, String>> samples;
+    private ColumnarSampleBatch columnarBatch;
+    private int[] rows;
+
+    @Setup
+    public void setup() throws OrtException {
+        OrtEnvironment environment = OrtEnvironment.getEnvironment();
+        session = PerfFixtures.newCtrV1Session(environment);
+        service = PerfFixtures.newCtrV1Service(environment, session);
+
+        SyntheticSampleGenerator generator = PerfFixtures.newGenerator(ModelConstants.CTR_V1);
+        samples = generator.nextBatch(batchSize);
+        columnarBatch = new ColumnarSampleBatch(generator.getColumns(), generator.nextRows(batchSize));
+        rows = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            rows[i] = i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws OrtException {
+        session.close();
+    }
+
+    @Benchmark
+    public float[] predictMaps() {
+        return service.predict(samples);
+    }
+
+    @Benchmark
+    public float[] predictColumnar() {
+        return service.predict(columnarBatch, rows);
+    }
+}
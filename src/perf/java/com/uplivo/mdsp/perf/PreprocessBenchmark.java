@@ -0,0 +1,93 @@
+package com.uplivo.mdsp.perf;
+
+import com.uplivo.mdsp.core.preprocessor.deepfm.base.AbstractPreprocessor;
+import com.uplivo.mdsp.core.sample.ColumnarSampleBatch;
+import com.uplivo.mdsp.core.sample.SyntheticSampleGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 批量预处理基准：CTR v1/v2 预处理器在 1~1024 批大小下的Map路径、直写缓冲区路径与列式路径
+ *
+ * @Author charles
+ * @Date 2025/10/28 11:00
+ * @Version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreprocessBenchmark {
+
+    @Param({"ctr_v1", "ctr_v2"})
+    private String model;
+
+    @Param({"1", "16", "64", "256", "1024"})
+    private int batchSize;
+
+    private AbstractPreprocessor preprocessor;
+    private List<Map<String, String>> samples;
+    private ColumnarSampleBatch columnarBatch;
+    private int[] rows;
+    private FloatBuffer target;
+
+    @Setup
+    public void setup() {
+        preprocessor = PerfFixtures.newPreprocessor(model);
+        SyntheticSampleGenerator generator = PerfFixtures.newGenerator(model);
+        samples = generator.nextBatch(batchSize);
+        columnarBatch = new ColumnarSampleBatch(generator.getColumns(), generator.nextRows(batchSize));
+        rows = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            rows[i] = i;
+        }
+        int featureDim = preprocessor.getFeaturePlan().getFeatureDim();
+        target = ByteBuffer.allocateDirect(batchSize * featureDim * Float.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+
+    /**
+     * 兼容路径：输出二维特征数组
+     */
+    @Benchmark
+    public float[][] mapToArray() {
+        return preprocessor.batchPreprocess(samples);
+    }
+
+    /**
+     * 线上路径：Map样本直写直接内存缓冲区
+     */
+    @Benchmark
+    public int mapToBuffer() {
+        target.clear();
+        return preprocessor.batchPreprocess(samples, target);
+    }
+
+    /**
+     * 列式路径：列式批次直写直接内存缓冲区
+     */
+    @Benchmark
+    public int columnarToBuffer() {
+        target.clear();
+        return preprocessor.batchPreprocess(columnarBatch, rows, target);
+    }
+}
@@ -0,0 +1,117 @@
+package com.uplivo.mdsp.perf;
+
+import com.uplivo.mdsp.common.constants.ModelConstants;
+import com.uplivo.mdsp.core.condition.ConditionConfig;
+import com.uplivo.mdsp.core.condition.ConditionRouter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 条件路由基准：大规模规则集（EQ/IN/PREFIX/RANGE混合）下的groupFeaturesByCondition
+ * <p>样本adx取值覆盖规则区间及区间外取值，兼顾命中与回落默认模型两种情况</p>
+ *
+ * @Author charles
+ * @Date 2025/10/28 11:20
+ * @Version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final int ADX_BASE = 20000;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int ruleCount;
+
+    @Param({"1", "64", "1024"})
+    private int batchSize;
+
+    private ConditionRouter router;
+    private List<Map<String, String>> samples;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(PerfFixtures.SEED);
+        ConditionConfig config = new ConditionConfig();
+        config.setDefaultModel(ModelConstants.CTR_V1);
+        List<ConditionConfig.ConditionRule> rules = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(newRule(i));
+        }
+        config.setRules(rules);
+        router = new ConditionRouter(config);
+        router.init();
+
+        samples = PerfFixtures.newGenerator(ModelConstants.CTR_V2).nextBatch(batchSize);
+        for (Map<String, String> sample : samples) {
+            // 约 1/8 样本落在规则区间外，回落默认模型
+            sample.put("adx", Integer.toString(ADX_BASE + random.nextInt(ruleCount + ruleCount / 8 + 1)));
+        }
+    }
+
+    @Benchmark
+    public Map<String, List<Map<String, String>>> groupFeaturesByCondition() {
+        return router.groupFeaturesByCondition(samples);
+    }
+
+    /**
+     * 第i条规则：adx等值匹配 + 按序轮换的第二条件（无 / IN / PREFIX / RANGE）
+     */
+    private static ConditionConfig.ConditionRule newRule(int i) {
+        List<ConditionConfig.Condition> conditions = new ArrayList<>(2);
+        conditions.add(condition("adx", ConditionConfig.Operator.EQ, Integer.toString(ADX_BASE + i)));
+        switch (i % 4) {
+            case 1:
+                ConditionConfig.Condition in = condition("os", ConditionConfig.Operator.IN, null);
+                in.setValues(Arrays.asList("android", "ios"));
+                conditions.add(in);
+                break;
+            case 2:
+                conditions.add(condition("bundle", ConditionConfig.Operator.PREFIX, "com."));
+                break;
+            case 3:
+                ConditionConfig.Condition range = condition("bid_macro", ConditionConfig.Operator.RANGE, null);
+                range.setMin(0.0);
+                range.setMax(100.0);
+                conditions.add(range);
+                break;
+            default:
+                break;
+        }
+
+        ConditionConfig.ConditionRule rule = new ConditionConfig.ConditionRule();
+        rule.setName("rule_" + i);
+        rule.setTargetModel(i % 2 == 0 ? ModelConstants.CTR_V2 : ModelConstants.CTR_V1);
+        rule.setConditions(conditions);
+        return rule;
+    }
+
+    private static ConditionConfig.Condition condition(String field, ConditionConfig.Operator operator,
+                                                       String value) {
+        ConditionConfig.Condition condition = new ConditionConfig.Condition();
+        condition.setField(field);
+        condition.setOperator(operator);
+        condition.setValue(value);
+        return condition;
+    }
+}
@@ -0,0 +1,93 @@
+package com.uplivo.mdsp.service;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import com.uplivo.mdsp.common.constants.ModelConstants;
+import com.uplivo.mdsp.perf.PerfFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description 输入张量构建基准：prepareInputBuffer + createOnnxTensor（堆缓冲区拷贝）与池化直接内存缓冲区两种路径
+ * <p>位于service包内以调用AbstractModelService的受保护工具方法</p>
+ *
+ * @Author charles
+ * @Date 2025/10/28 11:40
+ * @Version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TensorBenchmark {
+
+    @Param({"1", "16", "64", "256", "1024"})
+    private int batchSize;
+
+    private OrtSession session;
+    private AbstractModelService service;
+    private float[][] features;
+    private long[] shape;
+
+    @Setup
+    public void setup() throws OrtException {
+        OrtEnvironment environment = OrtEnvironment.getEnvironment();
+        session = PerfFixtures.newCtrV1Session(environment);
+        service = PerfFixtures.newCtrV1Service(environment, session);
+        features = service.getPreprocessor().batchPreprocess(
+                PerfFixtures.newGenerator(ModelConstants.CTR_V1).nextBatch(batchSize));
+        shape = new long[]{batchSize, features[0].length};
+    }
+
+    @TearDown
+    public void tearDown() throws OrtException {
+        session.close();
+    }
+
+    /**
+     * 兼容路径：二维特征拷贝到堆缓冲区后创建张量（张量创建时再拷贝到直接内存）
+     */
+    @Benchmark
+    public long prepareAndCreateTensor() throws OrtException {
+        FloatBuffer buffer = service.prepareInputBuffer(features, batchSize, features[0].length);
+        try (OnnxTensor tensor = service.createOnnxTensor(buffer, shape)) {
+            return tensor.getInfo().getNumElements();
+        }
+    }
+
+    /**
+     * 线上路径：写入池化直接内存缓冲区，张量直接引用
+     */
+    @Benchmark
+    public long pooledCreateTensor() throws OrtException {
+        FloatBuffer buffer = service.acquireInputBuffer(batchSize * features[0].length);
+        try {
+            for (float[] sample : features) {
+                buffer.put(sample);
+            }
+            buffer.rewind();
+            try (OnnxTensor tensor = service.createOnnxTensor(buffer, shape)) {
+                return tensor.getInfo().getNumElements();
+            }
+        } finally {
+            service.releaseInputBuffer(buffer);
+        }
+    }
+}
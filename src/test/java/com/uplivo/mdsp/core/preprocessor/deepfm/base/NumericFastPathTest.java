@@ -0,0 +1,200 @@
+package com.uplivo.mdsp.core.preprocessor.deepfm.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @Description 数值特征快速路径一致性测试：解析结果与 Double.parseDouble(raw.trim()) 逐位一致，
+ * 舍入结果与 new BigDecimal(x).setScale(6, HALF_UP).floatValue() 逐位一致
+ * @Author charles
+ * @Date 2025/11/03 10:20
+ * @Version 1.0.0
+ */
+class NumericFastPathTest {
+
+    private static final long SEED = 20251021L;
+    private static final int RANDOM_CASES = 200_000;
+
+    private static final String[] EDGE_CASES = {
+            // 空白与符号
+            "0", "-0", "+0", "0.0", "-0.0", " 1", "1 ", "\t 42 \n", "  -3.5  ", "+7", "-7", "+0.5", "\u0000 9 \u001f",
+            // 小数与前导/尾随零
+            "0.000001", "0.0000005", "0.0000015", "000123.4500", "1.000000", "100000000", "999999999.9999995",
+            // 指数
+            "1e0", "1E5", "1e-5", "1.5e+3", "-2.5E-7", "1e22", "1e23", "1e-22", "1e-23", "1e308", "1e309", "4.9e-324",
+            "2e-324", "1e-400", "1e00000000000000000005", "7e-0",
+            // 超长有效位
+            "12345678901234567", "123456789012345678", "1234567890123456789", "9007199254740993",
+            "9007199254740992", "0.1234567890123456789", "3.141592653589793238462643383279",
+            "179769313486231570000000000000000000000000000000000000000000000000000000000000000",
+            // 舍入临界点（二进制表示恰在或接近 x.xxxxxx5）
+            "0.1234565", "0.1234575", "1.0000005", "2.0000005", "-1.0000005", "0.0000025", "123.4567895",
+            "1.4999995", "0.5000005", "999.9999995",
+            // 十六进制、NaN/Infinity、类型后缀（回退JDK）
+            "0x1p3", "0X1.8p1", "-0x1p-2", "NaN", "-NaN", "+NaN", "Infinity", "-Infinity", "+Infinity",
+            "1d", "1D", "1f", "2.5F", "1.5e3d",
+            // 小数点单侧无数字
+            ".5", "5.", "-.5", "+5.", "1.e3", ".5e-2"
+    };
+
+    private static final String[] INVALID_CASES = {
+            "", "   ", "-", "+", ".", "e5", "1e", "1e+", "1.2.3", "--1", "1-", "abc", "1 2", "0x", "1,5"
+    };
+
+    @Test
+    void parseDoubleMatchesJdkOnEdgeCases() {
+        for (String raw : EDGE_CASES) {
+            assertParseMatches(raw);
+        }
+    }
+
+    @Test
+    void parseDoubleThrowsLikeJdkOnInvalidInput() {
+        for (String raw : INVALID_CASES) {
+            assertThrows(NumberFormatException.class, () -> Double.parseDouble(raw.trim()), raw);
+            assertThrows(NumberFormatException.class, () -> parse(raw), raw);
+        }
+    }
+
+    @Test
+    void parseDoubleMatchesJdkOnRandomInputs() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            assertParseMatches(randomDecimal(random));
+        }
+    }
+
+    @Test
+    void parseDoubleMatchesJdkOnRandomDoubleStrings() {
+        Random random = new Random(SEED + 1);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            assertParseMatches(Double.toString(value));
+            assertParseMatches(Double.toString(random.nextGaussian() * 1e6));
+        }
+    }
+
+    @Test
+    void roundHalfUp6MatchesBigDecimalOnEdgeCases() {
+        double[] values = {
+                0.0, -0.0, 1.0, -1.0, 0.5, 1e-7, -1e-7, 5e-7, -5e-7, 4.9999999e-7, 5.0000001e-7,
+                0.1234565, 0.1234575, 1.0000005, -1.0000005, 2.0000005, 123.4567895, 0.0000025,
+                999999999.9999995, 1e9, -1e9, 1e9 + 0.5, 4194303.9999995, 4194304.0000005, 8388608.0000005,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL, 1e15, 1e300, -1e300, Double.MAX_VALUE
+        };
+        for (double value : values) {
+            assertRoundMatches(value);
+        }
+        for (String raw : EDGE_CASES) {
+            double value = Double.parseDouble(raw.trim());
+            if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+                assertRoundMatches(value);
+            }
+        }
+    }
+
+    @Test
+    void roundHalfUp6MatchesBigDecimalNearTies() {
+        Random random = new Random(SEED + 2);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            // 构造 k + 0.5 个单位（10^-6）的临界值及其相邻double
+            long units = random.nextInt(2_000_000_000) - 1_000_000_000L;
+            double tie = (units + 0.5) / 1e6;
+            assertRoundMatches(tie);
+            assertRoundMatches(Math.nextUp(tie));
+            assertRoundMatches(Math.nextDown(tie));
+        }
+    }
+
+    @Test
+    void roundHalfUp6MatchesBigDecimalOnRandomInputs() {
+        Random random = new Random(SEED + 3);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            assertRoundMatches(random.nextGaussian() * Math.pow(10, random.nextInt(12) - 3));
+            assertRoundMatches((random.nextDouble() - 0.5) * 2e9);
+            double bits = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(bits) && !Double.isInfinite(bits)) {
+                assertRoundMatches(bits);
+            }
+        }
+    }
+
+    @Test
+    void roundHalfUp6RejectsNonFiniteLikeBigDecimal() {
+        for (double value : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            assertThrows(NumberFormatException.class, () -> new BigDecimal(value));
+            assertThrows(NumberFormatException.class, () -> NumericFastPath.roundHalfUp6(value));
+        }
+    }
+
+    private static double parse(String raw) {
+        int start = NumericFastPath.trimStart(raw);
+        int end = NumericFastPath.trimEnd(raw, start);
+        if (start == end) {
+            throw new NumberFormatException("empty String");
+        }
+        return NumericFastPath.parseDouble(raw, start, end);
+    }
+
+    private static void assertParseMatches(String raw) {
+        long expected = Double.doubleToRawLongBits(Double.parseDouble(raw.trim()));
+        long actual = Double.doubleToRawLongBits(parse(raw));
+        assertEquals(expected, actual, () -> "parseDouble mismatch for [" + raw + "]");
+    }
+
+    private static void assertRoundMatches(double value) {
+        int expected = Float.floatToRawIntBits(new BigDecimal(value).setScale(6, RoundingMode.HALF_UP).floatValue());
+        int actual = Float.floatToRawIntBits(NumericFastPath.roundHalfUp6(value));
+        assertEquals(expected, actual, () -> "roundHalfUp6 mismatch for " + value);
+    }
+
+    /**
+     * 随机十进制串：符号、前导零、整数/小数位数、指数与首尾空白随机组合
+     */
+    private static String randomDecimal(Random random) {
+        StringBuilder sb = new StringBuilder();
+        if (random.nextInt(8) == 0) {
+            sb.append(random.nextBoolean() ? ' ' : '\t');
+        }
+        int sign = random.nextInt(4);
+        if (sign == 0) {
+            sb.append('-');
+        } else if (sign == 1) {
+            sb.append('+');
+        }
+        if (random.nextInt(6) == 0) {
+            sb.append("00");
+        }
+        appendDigits(sb, random, 1 + random.nextInt(random.nextInt(4) == 0 ? 22 : 10));
+        if (random.nextBoolean()) {
+            sb.append('.');
+            appendDigits(sb, random, 1 + random.nextInt(random.nextInt(4) == 0 ? 22 : 9));
+        }
+        if (random.nextInt(4) == 0) {
+            sb.append(random.nextBoolean() ? 'e' : 'E');
+            int exponentSign = random.nextInt(3);
+            if (exponentSign == 0) {
+                sb.append('-');
+            } else if (exponentSign == 1) {
+                sb.append('+');
+            }
+            sb.append(random.nextInt(random.nextInt(8) == 0 ? 400 : 30));
+        }
+        if (random.nextInt(8) == 0) {
+            sb.append(random.nextBoolean() ? ' ' : '\n');
+        }
+        return sb.toString();
+    }
+
+    private static void appendDigits(StringBuilder sb, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+    }
+}